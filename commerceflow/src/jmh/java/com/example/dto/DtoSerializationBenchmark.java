@@ -0,0 +1,100 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of response lists, with an ObjectMapper configured like Spring
+ * Boot's (java.time support, ISO dates). {@code toBytes} includes growing the output
+ * buffer, as a fully buffered response does; {@code toStream} writes through to a
+ * discarding stream, as a streamed response does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    int size;
+
+    private ObjectWriter orderWriter;
+    private ObjectWriter productWriter;
+    private List<OrderDTO> orders;
+    private List<ProductDTO> products;
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        orderWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, OrderDTO.class));
+        productWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ProductDTO.class));
+
+        Instant now = Instant.now();
+        orders = new ArrayList<>(size);
+        products = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            BigDecimal price = new BigDecimal(id * 137 % 10_000).movePointLeft(2);
+
+            products.add(ProductDTO.builder()
+                    .id(id)
+                    .sku("SKU-" + id)
+                    .name("Product " + id)
+                    .categoryId(id % 20)
+                    .categoryName("Category " + id % 20)
+                    .price(price)
+                    .quantity((int) (id % 500))
+                    .createdAt(now)
+                    .build());
+
+            // three lines per order, the typical basket
+            List<OrderItemDTO> items = new ArrayList<>(3);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int line = 1; line <= 3; line++) {
+                BigDecimal lineTotal = price.multiply(BigDecimal.valueOf(line));
+                items.add(new OrderItemDTO(id * 3 + line, id, id + line, price, line, lineTotal));
+                total = total.add(lineTotal);
+            }
+            orders.add(OrderDTO.builder()
+                    .id(id)
+                    .customerId(id % 1_000)
+                    .customerFirstName("Customer" + id % 1_000)
+                    .orderDate(now)
+                    .status("NEW")
+                    .total(total)
+                    .items(items)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] ordersToBytes() throws IOException {
+        return orderWriter.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] productsToBytes() throws IOException {
+        return productWriter.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public void ordersToStream() throws IOException {
+        orderWriter.writeValue(OutputStream.nullOutputStream(), orders);
+    }
+
+    @Benchmark
+    public void productsToStream() throws IOException {
+        productWriter.writeValue(OutputStream.nullOutputStream(), products);
+    }
+}
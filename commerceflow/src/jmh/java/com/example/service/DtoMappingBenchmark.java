@@ -0,0 +1,97 @@
+package com.example.service;
+
+import com.example.dto.OrderDTO;
+import com.example.dto.OrderItemDTO;
+import com.example.dto.ProductDTO;
+import com.example.entity.Category;
+import com.example.entity.Customer;
+import com.example.entity.Order;
+import com.example.entity.OrderItem;
+import com.example.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping on the read paths: {@link OrderService#toDto} (order with its
+ * items), {@link OrderItemService#toDto} and {@link ProductService#toDTO}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"1", "10", "100"})
+    int items;
+
+    private Order order;
+    private OrderItem item;
+    private Product product;
+
+    @Setup
+    public void setup() {
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Bench category");
+
+        Customer customer = Customer.builder().id(1L).firstName("Bench").lastName("Customer").build();
+
+        order = new Order();
+        order.setId(1L);
+        order.setCustomer(customer);
+        BigDecimal total = BigDecimal.ZERO;
+        for (long id = 1; id <= items; id++) {
+            Product p = Product.builder()
+                    .id(id)
+                    .sku("BENCH-" + id)
+                    .name("Bench product " + id)
+                    .category(category)
+                    .price(new BigDecimal("19.99"))
+                    .quantity(100)
+                    .createdAt(Instant.now())
+                    .build();
+
+            OrderItem line = new OrderItem();
+            line.setId(id);
+            line.setOrder(order);
+            line.setProduct(p);
+            line.setQuantity(2);
+            line.setUnitPrice(p.getPrice());
+            line.setLineTotal(p.getPrice().multiply(BigDecimal.valueOf(2)));
+            order.getItems().add(line);
+            total = total.add(line.getLineTotal());
+        }
+        order.setTotal(total);
+
+        item = order.getItems().get(0);
+        product = item.getProduct();
+    }
+
+    @Benchmark
+    public OrderDTO orderToDto() {
+        return OrderService.toDto(order);
+    }
+
+    @Benchmark
+    public OrderItemDTO orderItemToDto() {
+        return OrderItemService.toDto(item);
+    }
+
+    @Benchmark
+    public List<ProductDTO> productsToDto() {
+        return order.getItems().stream()
+                .map(line -> ProductService.toDTO(line.getProduct()))
+                .toList();
+    }
+
+    @Benchmark
+    public ProductDTO productToDto() {
+        return ProductService.toDTO(product);
+    }
+}
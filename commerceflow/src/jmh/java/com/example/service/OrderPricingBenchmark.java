@@ -0,0 +1,74 @@
+package com.example.service;
+
+import com.example.dto.OrderItemCreateDTO;
+import com.example.dto.ProductSnapshot;
+import com.example.entity.Customer;
+import com.example.entity.Order;
+import com.example.entity.Product;
+import com.example.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line-total and order-total computation of {@link OrderService#createOrder}
+ * ({@link OrderService#buildOrder}): BigDecimal price x quantity per line, summed into
+ * the order total, plus the Order/OrderItem instances it creates. The repository only
+ * hands out references, as Hibernate's getReferenceById does without touching the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPricingBenchmark {
+
+    @Param({"1", "10", "100"})
+    int lines;
+
+    private OrderService orderService;
+    private Customer customer;
+    private List<OrderItemCreateDTO> items;
+    private Map<Long, ProductSnapshot> products;
+
+    @Setup
+    public void setup() {
+        Map<Long, Product> references = new HashMap<>();
+        products = new HashMap<>();
+        items = new ArrayList<>();
+        for (long id = 1; id <= lines; id++) {
+            // prices with cents and varying scale, like a real catalog
+            BigDecimal price = new BigDecimal(id * 137 % 10_000).movePointLeft(2);
+            products.put(id, new ProductSnapshot(id, price, 1L));
+            references.put(id, Product.builder().id(id).build());
+
+            OrderItemCreateDTO line = new OrderItemCreateDTO();
+            line.setProductId(id);
+            line.setQuantity((int) (id % 7) + 1);
+            items.add(line);
+        }
+
+        ProductRepository productRepo = (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getReferenceById")) return references.get((Long) args[0]);
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        orderService = new OrderService(null, null, null, productRepo, null, null, null, null, null);
+
+        customer = Customer.builder().id(1L).firstName("Bench").build();
+    }
+
+    @Benchmark
+    public Order buildOrder() {
+        return orderService.buildOrder(customer, items, products);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.service;
+
+import com.example.Application;
+import com.example.dto.OrderItemCreateDTO;
+import com.example.dto.ProductSnapshot;
+import com.example.entity.Category;
+import com.example.entity.Product;
+import com.example.fixture.CatalogFixture;
+import com.example.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.fixture.CatalogFixture.line;
+
+/**
+ * Product lookup of {@link OrderService#createOrder} ({@link OrderService#loadProducts})
+ * against the in-memory H2 of the test configuration: the old one-findById-per-line loop
+ * next to the single IN query, with the snapshot cache cleared so every invocation hits
+ * the database. Statement counts for the same paths are asserted by
+ * OrderServiceProductLookupQueryCountTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductLookupBenchmark {
+
+    @Param({"1", "10", "100"})
+    int lines;
+
+    private ConfigurableApplicationContext ctx;
+    private OrderService orderService;
+    private ProductRepository productRepo;
+    private ProductSnapshotCache productSnapshots;
+    private TransactionTemplate tx;
+    private List<Long> ids;
+    private List<OrderItemCreateDTO> items;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ctx = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN");
+        orderService = ctx.getBean(OrderService.class);
+        productRepo = ctx.getBean(ProductRepository.class);
+        productSnapshots = ctx.getBean(ProductSnapshotCache.class);
+        tx = ctx.getBean(TransactionTemplate.class);
+
+        CatalogFixture fixture = ctx.getBean(CatalogFixture.class);
+        Category category = fixture.category("lookup-bench");
+        ids = new ArrayList<>();
+        items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            Long id = fixture.product(category, "LOOKUP-" + i, "9.99", 1_000);
+            ids.add(id);
+            items.add(line(id, 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    // The pre-change behaviour: one findById round trip per order line
+    @Benchmark
+    public List<Product> perLineFindById() {
+        return tx.execute(s -> {
+            List<Product> products = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                products.add(productRepo.findById(id).orElseThrow());
+            }
+            return products;
+        });
+    }
+
+    // The current behaviour: distinct ids resolved in one IN query on a cold cache
+    @Benchmark
+    public Map<Long, ProductSnapshot> inQuery() {
+        productSnapshots.clear();
+        return tx.execute(s -> orderService.loadProducts(items));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.loadtest;
+
+import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderDTO;
+import com.example.dto.OrderItemCreateDTO;
+import com.example.dto.OrderItemDTO;
+import com.example.entity.Category;
+import com.example.entity.Customer;
+import com.example.entity.Product;
+import com.example.repository.CategoryRepository;
+import com.example.repository.CustomerRepository;
+import com.example.repository.ProductRepository;
+import com.example.service.OrderService;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the configured volumes through the application's own repositories and services,
+ * from a fixed seed, so every run starts from the same data set.
+ */
+final class DataSeeder {
+
+    private static final int CHUNK = 500;
+
+    // large enough that the workload never runs into insufficient stock
+    private static final int STOCK = 1_000_000;
+
+    private final ApplicationContext ctx;
+    private final LoadTestSettings settings;
+    private final Random random;
+
+    DataSeeder(ApplicationContext ctx, LoadTestSettings settings) {
+        this.ctx = ctx;
+        this.settings = settings;
+        this.random = new Random(settings.seed());
+    }
+
+    WorkloadData seed() {
+        WorkloadData data = new WorkloadData();
+
+        CategoryRepository categoryRepo = ctx.getBean(CategoryRepository.class);
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < settings.categories(); i++) {
+            Category category = new Category();
+            category.setName("Category " + i);
+            category.setDescription("Load-test category " + i);
+            categories.add(category);
+        }
+        categoryRepo.saveAll(categories).forEach(category -> data.categories.add(category.getId()));
+
+        ProductRepository productRepo = ctx.getBean(ProductRepository.class);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < settings.products(); i++) {
+            products.add(Product.builder()
+                    .sku("LT-" + i)
+                    .name("Product " + i)
+                    .category(categories.get(random.nextInt(categories.size())))
+                    .price(BigDecimal.valueOf(100 + random.nextInt(99_900), 2))
+                    .quantity(STOCK)
+                    .build());
+            if (products.size() == CHUNK || i == settings.products() - 1) {
+                productRepo.saveAll(products).forEach(product -> data.products.add(product.getId()));
+                products.clear();
+            }
+        }
+
+        CustomerRepository customerRepo = ctx.getBean(CustomerRepository.class);
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < settings.customers(); i++) {
+            customers.add(Customer.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("customer" + i + "@loadtest.example")
+                    .build());
+            if (customers.size() == CHUNK || i == settings.customers() - 1) {
+                customerRepo.saveAll(customers).forEach(customer -> data.customers.add(customer.getId()));
+                customers.clear();
+            }
+        }
+
+        OrderService orderService = ctx.getBean(OrderService.class);
+        for (int i = 0; i < settings.orders(); i++) {
+            OrderDTO order = orderService.createOrder(new OrderCreateDTO(data.customers.pick(random), lines(data)));
+            data.orders.add(order.getId());
+            data.items.addAll(order.getItems().stream().map(OrderItemDTO::getId).toList());
+        }
+        return data;
+    }
+
+    private List<OrderItemCreateDTO> lines(WorkloadData data) {
+        List<OrderItemCreateDTO> lines = new ArrayList<>();
+        for (int i = 0; i < settings.itemsPerOrder(); i++) {
+            OrderItemCreateDTO line = new OrderItemCreateDTO();
+            line.setProductId(data.products.pick(random));
+            line.setQuantity(1 + random.nextInt(3));
+            lines.add(line);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Ids of existing rows the workload can pick from; grows with creates, shrinks with deletes.
+ */
+final class IdPool {
+
+    private final List<Long> ids = new ArrayList<>();
+
+    synchronized void add(Long id) {
+        ids.add(id);
+    }
+
+    synchronized void addAll(Collection<Long> more) {
+        ids.addAll(more);
+    }
+
+    /**
+     * A random id, or null when the pool is empty.
+     */
+    synchronized Long pick(Random random) {
+        return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+    }
+
+    /**
+     * Remove and return a random id, or null when the pool is empty.
+     */
+    synchronized Long take(Random random) {
+        if (ids.isEmpty()) return null;
+        int i = random.nextInt(ids.size());
+        Long id = ids.get(i);
+        ids.set(i, ids.get(ids.size() - 1));
+        ids.remove(ids.size() - 1);
+        return id;
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+}
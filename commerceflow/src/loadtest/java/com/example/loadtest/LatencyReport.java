@@ -0,0 +1,178 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and status counts of the measured phase.
+ *
+ * Latency runs from the request's intended start (its slot in the fixed-rate schedule), not
+ * from when a client thread got around to sending it, so time spent queued behind a slow
+ * response is counted (coordinated-omission correction).
+ *
+ * Written to the report directory as report.txt and report.json (no timestamps, stable
+ * ordering: diff them between builds) and latency.hlog (HdrHistogram log, one interval
+ * histogram per operation, for HistogramLogAnalyzer / plotting).
+ */
+final class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toNanos(5);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<String, LongAdder>> statuses = new EnumMap<>(Operation.class);
+    private long startMillis;
+    private long endMillis;
+
+    LatencyReport() {
+        for (Operation op : Operation.values()) {
+            latencies.put(op, new ConcurrentHistogram(HIGHEST_TRACKABLE, 3));
+            statuses.put(op, new ConcurrentHashMap<>());
+        }
+    }
+
+    void start() {
+        startMillis = System.currentTimeMillis();
+    }
+
+    void end() {
+        endMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * @param status HTTP status, {@link Workload#SKIPPED}, or -1 when the request failed without a response
+     */
+    void record(Operation op, long latencyNanos, int status) {
+        String key = status == Workload.SKIPPED ? "skipped" : status < 0 ? "io-error" : String.valueOf(status);
+        statuses.get(op).computeIfAbsent(key, k -> new LongAdder()).increment();
+        if (status != Workload.SKIPPED) {
+            latencies.get(op).recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE));
+        }
+    }
+
+    void write(LoadTestSettings settings) throws IOException {
+        Path dir = settings.reportDir();
+        Files.createDirectories(dir);
+
+        Map<String, Object> results = results(settings);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve("report.txt")), false, "UTF-8")) {
+            printText(settings, results, out);
+        }
+        printText(settings, results, System.out);
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("settings", settings.describe());
+        document.put("operations", results);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(dir.resolve("report.json").toFile(), document);
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve("latency.hlog")), false, "UTF-8")) {
+            HistogramLogWriter log = new HistogramLogWriter(out);
+            log.outputLogFormatVersion();
+            log.outputStartTime(startMillis);
+            log.outputLegend();
+            latencies.forEach((op, histogram) -> {
+                histogram.setTag(op.label());
+                histogram.setStartTimeStamp(startMillis);
+                histogram.setEndTimeStamp(endMillis);
+                log.outputIntervalHistogram(histogram);
+            });
+        }
+    }
+
+    private Map<String, Object> results(LoadTestSettings settings) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        Histogram all = new Histogram(HIGHEST_TRACKABLE, 3);
+        Map<String, Object> results = new LinkedHashMap<>();
+
+        for (Operation op : Operation.values()) {
+            if (!settings.mix().containsKey(op)) continue;
+            Histogram histogram = latencies.get(op);
+            all.add(histogram);
+            results.put(op.label(), summary(histogram, statusCounts(op), seconds));
+        }
+
+        Map<String, Long> allStatuses = new TreeMap<>();
+        for (Operation op : Operation.values()) {
+            statusCounts(op).forEach((status, count) -> allStatuses.merge(status, count, Long::sum));
+        }
+        results.put("all", summary(all, allStatuses, seconds));
+        return results;
+    }
+
+    private Map<String, Long> statusCounts(Operation op) {
+        Map<String, Long> counts = new TreeMap<>();
+        statuses.get(op).forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, Map<String, Long> statuses, double seconds) {
+        long errors = statuses.entrySet().stream()
+                .filter(e -> !e.getKey().startsWith("2") && !e.getKey().equals("skipped"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+
+        Map<String, Object> latencyMs = new LinkedHashMap<>();
+        for (double p : PERCENTILES) {
+            latencyMs.put("p" + format(p), millis(histogram.getValueAtPercentile(p)));
+        }
+        latencyMs.put("max", millis(histogram.getMaxValue()));
+        latencyMs.put("mean", round(histogram.getMean() / 1_000_000.0));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("throughput", round(histogram.getTotalCount() / seconds));
+        summary.put("errors", errors);
+        summary.put("statuses", statuses);
+        summary.put("latencyMs", latencyMs);
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printText(LoadTestSettings settings, Map<String, Object> results, PrintStream out) {
+        out.println("commerceflow load test");
+        out.println();
+        settings.describe().forEach((name, value) -> out.printf("  %-18s %s%n", name, value));
+        out.println();
+        out.println("latency from intended start (coordinated-omission corrected), ms");
+        out.printf("%-14s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "req/s", "errors", "p50", "p90", "p99", "p99.9", "max");
+        results.forEach((op, value) -> {
+            Map<String, Object> summary = (Map<String, Object>) value;
+            Map<String, Object> latency = (Map<String, Object>) summary.get("latencyMs");
+            out.printf("%-14s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", op,
+                    summary.get("count"), summary.get("throughput"), summary.get("errors"),
+                    latency.get("p50"), latency.get("p90"), latency.get("p99"), latency.get("p99.9"), latency.get("max"));
+        });
+        out.println();
+        out.println("statuses");
+        results.forEach((op, value) -> out.printf("  %-14s %s%n", op, ((Map<String, Object>) value).get("statuses")));
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.loadtest;
+
+import com.example.Application;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test: boots the application (by default with the {@code loadtest}
+ * profile, i.e. in-process H2), seeds it, then drives the operation mix over HTTP at a
+ * fixed arrival rate (open model: requests are issued on schedule whether or not earlier
+ * ones have completed, up to max-in-flight concurrent clients; the rest queue and the
+ * queueing shows up as latency). See {@link LatencyReport} for the output.
+ *
+ *   mvn -Ploadtest test-compile exec:java -Dloadtest.rate=300 -Dloadtest.duration-seconds=120
+ *
+ * Settings are listed in {@link LoadTestSettings}; -Dloadtest.profiles= (empty) runs against
+ * the database configured in application.properties instead. To compare threading modes, run
+ * once more with -Dloadtest.profiles=loadtest,virtual-threads and a separate
+ * -Dloadtest.report-dir, then diff the two reports.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        SpringApplicationBuilder app = new SpringApplicationBuilder(Application.class)
+                .profiles(Arrays.stream(settings.profiles()).filter(p -> !p.isBlank()).toArray(String[]::new))
+                .properties("spring.config.location=" + mainConfigLocation());
+
+        try (ConfigurableApplicationContext ctx = app.run("--server.port=0", "--logging.level.root=WARN")) {
+            System.out.printf("Seeding %d categories, %d products, %d customers, %d orders...%n",
+                    settings.categories(), settings.products(), settings.customers(), settings.orders());
+            WorkloadData data = new DataSeeder(ctx, settings).seed();
+
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            String baseUrl = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+            Workload workload = new Workload(http, ctx.getBean(ObjectMapper.class), baseUrl, data, settings.itemsPerOrder());
+
+            System.out.printf("Driving %.0f req/s: %ds warm-up, %ds measured...%n",
+                    settings.rate(), settings.warmup().toSeconds(), settings.duration().toSeconds());
+            LatencyReport report = drive(settings, workload);
+            report.write(settings);
+            System.out.println("Report written to " + settings.reportDir().toAbsolutePath());
+        }
+    }
+
+    private static LatencyReport drive(LoadTestSettings settings, Workload workload) throws InterruptedException {
+        LatencyReport report = new LatencyReport();
+        OperationPicker picker = new OperationPicker(settings.mix());
+        Random schedule = new Random(settings.seed());
+        ExecutorService clients = Executors.newFixedThreadPool(settings.maxInFlight());
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / settings.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        boolean measuring = false;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) break;
+            LockSupport.parkNanos(intended - System.nanoTime());
+
+            if (!measuring && intended >= measureFrom) {
+                measuring = true;
+                report.start();
+            }
+            boolean measured = measuring;
+            Operation op = picker.next(schedule);
+            // per-request seed: the same run settings pick the same ids, whatever thread runs it
+            long seed = schedule.nextLong();
+
+            clients.execute(() -> {
+                int status;
+                try {
+                    status = workload.run(op, new Random(seed));
+                } catch (Exception ex) {
+                    status = -1;
+                }
+                if (measured) {
+                    report.record(op, System.nanoTime() - intended, status);
+                }
+            });
+        }
+
+        clients.shutdown();
+        if (!clients.awaitTermination(2, TimeUnit.MINUTES)) {
+            clients.shutdownNow();
+        }
+        report.end();
+        return report;
+    }
+
+    // target/classes, so the main application(-profile).properties apply rather than the test ones on the test classpath
+    private static String mainConfigLocation() throws URISyntaxException {
+        Path classes = Path.of(Application.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        return "file:" + classes.toAbsolutePath() + "/";
+    }
+
+    /**
+     * Weighted random choice over the configured mix.
+     */
+    private static final class OperationPicker {
+
+        private final Operation[] operations;
+        private final int[] cumulative;
+
+        OperationPicker(Map<Operation, Integer> mix) {
+            operations = mix.keySet().toArray(Operation[]::new);
+            cumulative = new int[operations.length];
+            int total = 0;
+            for (int i = 0; i < operations.length; i++) {
+                total += mix.get(operations[i]);
+                cumulative[i] = total;
+            }
+            if (total <= 0) throw new IllegalArgumentException("loadtest.mix has no positive weights");
+        }
+
+        Operation next(Random random) {
+            int r = random.nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (r < cumulative[i]) return operations[i];
+            }
+            throw new IllegalStateException();
+        }
+    }
+}
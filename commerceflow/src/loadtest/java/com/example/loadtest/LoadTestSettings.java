@@ -0,0 +1,80 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Load-test parameters, read from {@code loadtest.*} system properties (mvn -Dloadtest.rate=500 ...).
+ * The same settings and seed reproduce the same data set and the same operation sequence.
+ */
+record LoadTestSettings(
+        String[] profiles,
+        int categories,
+        int products,
+        int customers,
+        int orders,
+        int itemsPerOrder,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        int maxInFlight,
+        long seed,
+        Map<Operation, Integer> mix,
+        Path reportDir) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                property("profiles", "loadtest").split(","),
+                Integer.parseInt(property("categories", "20")),
+                Integer.parseInt(property("products", "2000")),
+                Integer.parseInt(property("customers", "1000")),
+                Integer.parseInt(property("orders", "2000")),
+                Integer.parseInt(property("items-per-order", "3")),
+                Double.parseDouble(property("rate", "100")),
+                Duration.ofSeconds(Long.parseLong(property("warmup-seconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(property("duration-seconds", "60"))),
+                Integer.parseInt(property("max-in-flight", "200")),
+                Long.parseLong(property("seed", "42")),
+                parseMix(property("mix", "browse:50,fetch-order:20,create-order:10,add-item:10,update-item:5,delete-item:5")),
+                Path.of(property("report-dir", "target/loadtest")));
+    }
+
+    /**
+     * Settings as name/value pairs, in a stable order, for the report header.
+     */
+    Map<String, Object> describe() {
+        Map<String, Object> values = new TreeMap<>();
+        values.put("profiles", String.join(",", profiles));
+        values.put("categories", categories);
+        values.put("products", products);
+        values.put("customers", customers);
+        values.put("orders", orders);
+        values.put("items-per-order", itemsPerOrder);
+        values.put("rate", rate);
+        values.put("warmup-seconds", warmup.toSeconds());
+        values.put("duration-seconds", duration.toSeconds());
+        values.put("max-in-flight", maxInFlight);
+        values.put("seed", seed);
+        values.put("mix", mix.toString());
+        return values;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("loadtest.mix entries are name:weight, got '" + entry + "'");
+            }
+            weights.put(Operation.byName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The request types of the mixed workload.
+ */
+enum Operation {
+    BROWSE("browse"),
+    FETCH_ORDER("fetch-order"),
+    CREATE_ORDER("create-order"),
+    ADD_ITEM("add-item"),
+    UPDATE_ITEM("update-item"),
+    DELETE_ITEM("delete-item");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static Operation byName(String label) {
+        return Arrays.stream(values())
+                .filter(op -> op.label.equals(label))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + label
+                        + "', expected one of " + Arrays.stream(values()).map(Operation::label).toList()));
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
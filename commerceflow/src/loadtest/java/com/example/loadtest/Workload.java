@@ -0,0 +1,130 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Issues one request of a given {@link Operation} against the running application and
+ * returns its HTTP status. Created orders and items are added to the {@link WorkloadData}
+ * pools, deleted items are taken out of them.
+ */
+final class Workload {
+
+    /** Status reported when there was nothing to operate on (e.g. every item deleted). */
+    static final int SKIPPED = 0;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper json;
+    private final String baseUrl;
+    private final WorkloadData data;
+    private final int itemsPerOrder;
+
+    Workload(HttpClient http, ObjectMapper json, String baseUrl, WorkloadData data, int itemsPerOrder) {
+        this.http = http;
+        this.json = json;
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.itemsPerOrder = itemsPerOrder;
+    }
+
+    int run(Operation op, Random random) throws IOException, InterruptedException {
+        return switch (op) {
+            case BROWSE -> browse(random);
+            case FETCH_ORDER -> fetchOrder(random);
+            case CREATE_ORDER -> createOrder(random);
+            case ADD_ITEM -> addItem(random);
+            case UPDATE_ITEM -> updateItem(random);
+            case DELETE_ITEM -> deleteItem(random);
+        };
+    }
+
+    // first page of the catalog, half of the time filtered by category
+    private int browse(Random random) throws IOException, InterruptedException {
+        String query = random.nextBoolean() ? "?size=20" : "?size=20&categoryId=" + data.categories.pick(random);
+        return send(get("/api/products" + query)).statusCode();
+    }
+
+    private int fetchOrder(Random random) throws IOException, InterruptedException {
+        Long orderId = data.orders.pick(random);
+        if (orderId == null) return SKIPPED;
+        return send(get("/api/orders/" + orderId)).statusCode();
+    }
+
+    private int createOrder(Random random) throws IOException, InterruptedException {
+        StringBuilder lines = new StringBuilder();
+        int count = 1 + random.nextInt(itemsPerOrder);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) lines.append(',');
+            lines.append(line(data.products.pick(random), 1 + random.nextInt(3)));
+        }
+        String body = "{\"customerId\":" + data.customers.pick(random) + ",\"items\":[" + lines + "]}";
+
+        HttpResponse<String> response = send(json("POST", "/api/orders", body));
+        if (response.statusCode() == 200) {
+            JsonNode order = json.readTree(response.body());
+            data.orders.add(order.get("id").asLong());
+            order.get("items").forEach(item -> data.items.add(item.get("id").asLong()));
+        }
+        return response.statusCode();
+    }
+
+    private int addItem(Random random) throws IOException, InterruptedException {
+        Long orderId = data.orders.pick(random);
+        if (orderId == null) return SKIPPED;
+
+        String body = line(data.products.pick(random), 1 + random.nextInt(3));
+        HttpResponse<String> response = send(json("POST", "/api/orders/" + orderId + "/items", body));
+        if (response.statusCode() == 200) {
+            data.items.add(json.readTree(response.body()).get("id").asLong());
+        }
+        return response.statusCode();
+    }
+
+    private int updateItem(Random random) throws IOException, InterruptedException {
+        Long itemId = data.items.pick(random);
+        if (itemId == null) return SKIPPED;
+        String body = "{\"quantity\":" + (1 + random.nextInt(5)) + "}";
+        return send(json("PUT", "/api/order-items/" + itemId, body)).statusCode();
+    }
+
+    private int deleteItem(Random random) throws IOException, InterruptedException {
+        Long itemId = data.items.take(random);
+        if (itemId == null) return SKIPPED;
+        return send(HttpRequest.newBuilder(uri("/api/order-items/" + itemId)).timeout(TIMEOUT).DELETE().build())
+                .statusCode();
+    }
+
+    private static String line(Long productId, int quantity) {
+        return "{\"productId\":" + productId + ",\"quantity\":" + quantity + "}";
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(TIMEOUT).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.loadtest;
+
+/**
+ * Ids the workload draws from: seeded rows plus everything created during the run.
+ */
+final class WorkloadData {
+
+    final IdPool categories = new IdPool();
+    final IdPool products = new IdPool();
+    final IdPool customers = new IdPool();
+    final IdPool orders = new IdPool();
+    final IdPool items = new IdPool();
+}
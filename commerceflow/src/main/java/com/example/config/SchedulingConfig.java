@@ -0,0 +1,12 @@
+package com.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (e.g. the hot inventory flush).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
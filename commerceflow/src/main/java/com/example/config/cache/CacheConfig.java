@@ -0,0 +1,31 @@
+package com.example.config.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Bounded Caffeine caches (size + TTL, stats recorded for actuator metrics).
+     * Wrapped so puts and evictions inside a transaction are applied only after commit;
+     * otherwise a concurrent read could re-cache the pre-update row.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${commerceflow.cache.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String spec) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(
+                CacheNames.PRODUCTS,
+                CacheNames.PRODUCT_SNAPSHOTS,
+                CacheNames.CATEGORIES,
+                CacheNames.CATEGORY_LISTS);
+        caffeine.setCacheSpecification(spec);
+        caffeine.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
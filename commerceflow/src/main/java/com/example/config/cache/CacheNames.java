@@ -0,0 +1,12 @@
+package com.example.config.cache;
+
+public final class CacheNames {
+
+    public static final String PRODUCTS = "products";                   // ProductDTO by id
+    public static final String PRODUCT_SNAPSHOTS = "productSnapshots";  // id + price for order pricing
+    public static final String CATEGORIES = "categories";               // CategoryDTO by id
+    public static final String CATEGORY_LISTS = "categoryLists";        // unpaged category listings
+
+    private CacheNames() {
+    }
+}
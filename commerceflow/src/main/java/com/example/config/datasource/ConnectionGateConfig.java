@@ -0,0 +1,68 @@
+package com.example.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the pool in a {@link GatedDataSource} when
+ * {@code commerceflow.datasource.gate.enabled=true} (on in the virtual-threads profile).
+ * The gate gets one permit per pooled connection.
+ */
+@Configuration
+@ConditionalOnProperty(name = "commerceflow.datasource.gate.enabled", havingValue = "true")
+public class ConnectionGateConfig {
+
+    @Bean
+    static BeanPostProcessor connectionGate(Environment env) {
+        return new ConnectionGatePostProcessor(env);
+    }
+
+    @Bean
+    MeterBinder connectionGateMetrics(DataSource dataSource) {
+        return registry -> {
+            GatedDataSource gated = DataSourceUnwrapper.unwrap(dataSource, GatedDataSource.class);
+            if (gated != null) {
+                Gauge.builder("commerceflow.datasource.gate.waiting", gated, GatedDataSource::getWaiting)
+                        .description("Requests queued for a database connection")
+                        .register(registry);
+            }
+        };
+    }
+
+    // ahead of the other DataSource post processors, which wrap whatever the gate returns
+    private static final class ConnectionGatePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment env;
+
+        private ConnectionGatePostProcessor(Environment env) {
+            this.env = env;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource pool)) return bean;
+
+            // unset (-1) until the pool starts, which then applies Hikari's default of 10
+            int poolSize = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : 10;
+            return new GatedDataSource(pool,
+                    poolSize,
+                    env.getProperty("commerceflow.datasource.gate.max-waiters", Integer.class, 1_000),
+                    env.getProperty("commerceflow.datasource.gate.wait-timeout-ms", Long.class, 5_000L));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
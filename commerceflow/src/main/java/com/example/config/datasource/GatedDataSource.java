@@ -0,0 +1,100 @@
+package com.example.config.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission gate in front of the connection pool. At most {@code permits} connections
+ * (the pool size) are handed out; further callers wait in a fair FIFO queue, and once
+ * {@code maxWaiters} are already queued new callers are rejected straight away.
+ *
+ * With virtual threads the servlet container no longer caps concurrency, so thousands of
+ * requests can pile onto the pool at once; the gate turns that into an orderly queue
+ * plus fast load shedding instead of a mass of pool timeouts.
+ */
+public class GatedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxWaiters;
+    private final long waitTimeoutMillis;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public GatedDataSource(DataSource target, int permits, int maxWaiters, long waitTimeoutMillis) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.maxWaiters = maxWaiters;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /** Callers currently queued for a connection. */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) return;
+
+        if (waiting.incrementAndGet() > maxWaiters) {
+            waiting.decrementAndGet();
+            throw new SQLTransientConnectionException("Connection gate full: " + maxWaiters + " requests already waiting");
+        }
+        try {
+            if (!permits.tryAcquire(waitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No connection available within " + waitTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", ex);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    // The permit goes back when the caller closes (returns) the connection, exactly once
+    private Connection releaseOnClose(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.config.metrics;
+
+import java.lang.annotation.*;
+
+/**
+ * Maximum number of SQL statements one request to the annotated endpoint may execute
+ * (a JDBC batch counts once). Budgets are a fixed number, independent of how many rows
+ * the response holds, so a lazy association loaded per row (N+1) breaks them as soon
+ * as a test uses more than a handful of rows.
+ *
+ * Unannotated endpoints get {@code commerceflow.sql.budget.default}; a single endpoint
+ * can be overridden with {@code commerceflow.sql.budget.<Controller>.<method>}.
+ * Requests over budget are logged and counted by {@link RequestMetricsFilter}, and fail
+ * when {@code commerceflow.sql.budget.enforce=true} (the test configuration).
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    /** Budget for endpoints whose statement count legitimately grows with the input (bulk imports). */
+    int UNLIMITED = Integer.MAX_VALUE;
+
+    /** Statements allowed per request. */
+    int value();
+}
@@ -0,0 +1,58 @@
+package com.example.config.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the {@link QueryBudget} of the handler that served a request:
+ * property override, then method annotation, then class annotation, then the default.
+ */
+@Component
+public class QueryBudgetResolver {
+
+    private final Environment env;
+    private final int defaultBudget;
+    private final Map<Method, Integer> budgets = new ConcurrentHashMap<>();
+
+    public QueryBudgetResolver(Environment env,
+                               @Value("${commerceflow.sql.budget.default:10}") int defaultBudget) {
+        this.env = env;
+        this.defaultBudget = defaultBudget;
+    }
+
+    /**
+     * Budget of the matched handler, or null when the request did not reach a controller
+     * method (static resources, 404s, actuator).
+     */
+    public Integer budgetFor(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod method) || !isApplicationHandler(method)) return null;
+        return budgets.computeIfAbsent(method.getMethod(), m -> resolve(method));
+    }
+
+    private int resolve(HandlerMethod handler) {
+        Class<?> type = handler.getBeanType();
+        Integer configured = env.getProperty(
+                "commerceflow.sql.budget." + type.getSimpleName() + "." + handler.getMethod().getName(), Integer.class);
+        if (configured != null) return configured;
+
+        QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(handler.getMethod(), QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(type, QueryBudget.class);
+        }
+        return budget != null ? budget.value() : defaultBudget;
+    }
+
+    private static boolean isApplicationHandler(HandlerMethod handler) {
+        return handler.getBeanType().getPackageName().startsWith("com.example");
+    }
+}
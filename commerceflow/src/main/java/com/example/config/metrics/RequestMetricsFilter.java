@@ -0,0 +1,102 @@
+package com.example.config.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request SQL totals, tagged like http.server.requests (method, uri template):
+ * - commerceflow.http.sql.statements: statements executed while serving one request
+ * - commerceflow.http.sql.time: time spent in those statements
+ * - commerceflow.http.sql.budget.exceeded: requests over their {@link QueryBudget}
+ * A request whose statement count grows with its result size is an N+1; the budget
+ * turns that into a WARN log line and, with commerceflow.sql.budget.enforce, a failure.
+ *
+ * The count and budget are left on the request ({@link #STATEMENTS_ATTRIBUTE},
+ * {@link #BUDGET_ATTRIBUTE}) for tests to assert on.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".statements";
+    public static final String BUDGET_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".budget";
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry meters;
+    private final QueryBudgetResolver budgets;
+    private final boolean enforce;
+
+    public RequestMetricsFilter(MeterRegistry meters,
+                                QueryBudgetResolver budgets,
+                                @Value("${commerceflow.sql.budget.enforce:false}") boolean enforce) {
+        this.meters = meters;
+        this.budgets = budgets;
+        this.enforce = enforce;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.end();
+            record(request, stats);
+        }
+        checkBudget(request, stats);
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        String method = request.getMethod();
+        String uri = uriTemplate(request);
+
+        DistributionSummary.builder("commerceflow.http.sql.statements")
+                .description("SQL statements per request")
+                .tags("method", method, "uri", uri)
+                .register(meters)
+                .record(stats.getStatements());
+        Timer.builder("commerceflow.http.sql.time")
+                .description("Time spent in SQL per request")
+                .tags("method", method, "uri", uri)
+                .register(meters)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void checkBudget(HttpServletRequest request, RequestSqlStats stats) {
+        Integer budget = budgets.budgetFor(request);
+        request.setAttribute(STATEMENTS_ATTRIBUTE, stats.getStatements());
+        if (budget == null) return;
+        request.setAttribute(BUDGET_ATTRIBUTE, budget);
+        if (stats.getStatements() <= budget) return;
+
+        String endpoint = request.getMethod() + " " + uriTemplate(request);
+        meters.counter("commerceflow.http.sql.budget.exceeded", "method", request.getMethod(), "uri", uriTemplate(request))
+                .increment();
+        log.warn("{} executed {} SQL statements, over its budget of {} (N+1?)", endpoint, stats.getStatements(), budget);
+        if (enforce) {
+            throw new IllegalStateException(endpoint + " executed " + stats.getStatements()
+                    + " SQL statements, over its query budget of " + budget);
+        }
+    }
+
+    // the matched handler pattern (/api/orders/{id}), never the raw path, to keep tag cardinality bounded
+    static String uriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.config.metrics;
+
+/**
+ * SQL statements executed on the current thread while a request is being served.
+ * Opened and closed by {@link RequestMetricsFilter}, fed by {@link SqlMetricsListener};
+ * statements outside a request (scheduled jobs, async exports) are not counted here.
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+
+    private RequestSqlStats() {
+    }
+
+    public static RequestSqlStats begin() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * The stats of the request running on this thread, or null outside a request.
+     */
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void record(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
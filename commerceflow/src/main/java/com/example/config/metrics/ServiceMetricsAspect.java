@@ -0,0 +1,50 @@
+package com.example.config.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histogram for every public method of a {@code *Service} class:
+ * commerceflow.service, tagged class, method and exception ("none" on success).
+ * Outermost advice, so the time includes retries, the transaction and its commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meters;
+
+    public ServiceMetricsAspect(MeterRegistry meters) {
+        this.meters = meters;
+    }
+
+    @Around("execution(public * com.example.service..*Service.*(..))")
+    public Object time(ProceedingJoinPoint pjp) throws Throwable {
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return pjp.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            Timer.builder("commerceflow.service")
+                    .description("Service method latency")
+                    .tag("class", pjp.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", pjp.getSignature().getName())
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meters)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.config.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts a datasource-proxy in front of the application DataSource so every statement
+ * passes through {@link SqlMetricsListener}. Runs after the other DataSource post
+ * processors (the connection gate wraps the bare pool first).
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static SqlMetricsListener sqlMetricsListener(
+            @Value("${commerceflow.sql.slow-threshold-ms:200}") long slowThresholdMs,
+            @Value("${commerceflow.sql.slow-log-sample-rate:1.0}") double slowLogSampleRate) {
+        return new SqlMetricsListener(Duration.ofMillis(slowThresholdMs), slowLogSampleRate);
+    }
+
+    @Bean
+    static BeanPostProcessor sqlMetricsDataSourceProxy(SqlMetricsListener listener) {
+        return new SqlMetricsPostProcessor(listener);
+    }
+
+    private static final class SqlMetricsPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final SqlMetricsListener listener;
+
+        private SqlMetricsPostProcessor(SqlMetricsListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) return bean;
+
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(listener)
+                    .build();
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.config.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times every JDBC execution (a batch counts once) and replaces show-sql:
+ * - commerceflow.sql: statement latency by type (select/insert/update/delete/other)
+ * - commerceflow.sql.slow: statements at or above the slow-query threshold
+ * - per-request totals go to {@link RequestSqlStats}
+ *
+ * Slow statements are logged at WARN, sampled at {@code slowLogSampleRate} so a
+ * database stall cannot turn into a logging storm. Meters are registered once the
+ * registry is available; statements run before that (schema setup) are only counted
+ * per request.
+ */
+public class SqlMetricsListener implements QueryExecutionListener, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMetricsListener.class);
+
+    private static final String STARTED = "commerceflow.started";
+    private static final int MAX_LOGGED_SQL = 2_000;
+
+    private final long slowThresholdNanos;
+    private final double slowLogSampleRate;
+
+    private volatile Map<QueryType, Timer> timers = Map.of();
+    private volatile Counter slow;
+
+    public SqlMetricsListener(Duration slowThreshold, double slowLogSampleRate) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowLogSampleRate = slowLogSampleRate;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map<QueryType, Timer> byType = new EnumMap<>(QueryType.class);
+        for (QueryType type : QueryType.values()) {
+            byType.put(type, Timer.builder("commerceflow.sql")
+                    .description("JDBC statement executions")
+                    .tag("type", type.name().toLowerCase())
+                    .register(registry));
+        }
+        slow = Counter.builder("commerceflow.sql.slow")
+                .description("Statements at or above the slow-query threshold")
+                .register(registry);
+        timers = byType;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queries) {
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queries) {
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        long elapsed = started == null
+                ? TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime())
+                : System.nanoTime() - started;
+
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.record(elapsed);
+        }
+
+        Timer timer = queries.isEmpty() ? null : timers.get(QueryUtils.getQueryType(queries.get(0).getQuery()));
+        if (timer != null) {
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+
+        if (elapsed >= slowThresholdNanos) {
+            if (slow != null) slow.increment();
+            if (ThreadLocalRandom.current().nextDouble() < slowLogSampleRate) {
+                logSlow(execInfo, queries, elapsed);
+            }
+        }
+    }
+
+    private static void logSlow(ExecutionInfo execInfo, List<QueryInfo> queries, long elapsed) {
+        String sql = queries.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        if (sql.length() > MAX_LOGGED_SQL) {
+            sql = sql.substring(0, MAX_LOGGED_SQL) + "...";
+        }
+        log.warn("Slow SQL ({} ms{}{}): {}",
+                TimeUnit.NANOSECONDS.toMillis(elapsed),
+                execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "",
+                execInfo.isSuccess() ? "" : ", failed",
+                sql);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.config.retry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application-wide cap on optimistic-lock retries: every first attempt deposits
+ * {@code ratio} of a token, every retry withdraws a whole one, and the balance is capped
+ * at {@code max-tokens}. Under a conflict storm retries therefore stay a bounded fraction
+ * of traffic instead of multiplying the load on the hot rows.
+ */
+@Component
+public class RetryBudget {
+
+    private static final long SCALE = 1_000;   // milli-tokens
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    public RetryBudget(@Value("${commerceflow.retry.budget.ratio:0.2}") double ratio,
+                       @Value("${commerceflow.retry.budget.max-tokens:100}") int maxTokens) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = maxTokens * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    void recordCall() {
+        balance.accumulateAndGet(deposit, (current, add) -> Math.min(capacity, current + add));
+    }
+
+    boolean tryAcquireRetry() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) return false;
+            if (balance.compareAndSet(current, current - SCALE)) return true;
+        }
+    }
+}
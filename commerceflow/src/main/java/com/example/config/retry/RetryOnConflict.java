@@ -0,0 +1,30 @@
+package com.example.config.retry;
+
+import java.lang.annotation.*;
+
+/**
+ * Re-run the annotated service method when it fails with an optimistic lock conflict
+ * (a concurrent write bumped the row's {@code @Version}). Each attempt runs in a fresh
+ * transaction, so the method must own its transaction: when called inside an existing
+ * one there is nothing safe to re-run and the conflict propagates unchanged.
+ * Only for writes that recompute from the current row: a re-run full replacement would
+ * re-apply the caller's stale payload (see the package documentation).
+ *
+ * Retries wait with exponential backoff and full jitter and draw on the shared
+ * {@link RetryBudget}; conflicts and retries are counted per method
+ * ({@code commerceflow.optimistic.*} metrics).
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+
+    /** Total attempts, including the first. */
+    int maxAttempts() default 3;
+
+    /** Backoff cap for the first retry; doubles on each further retry. */
+    long backoffMillis() default 10;
+
+    /** Upper bound for any single backoff. */
+    long maxBackoffMillis() default 200;
+}
@@ -0,0 +1,13 @@
+/**
+ * Optimistic locking. Order, OrderItem, Product, Customer and Category carry a
+ * {@code @Version} column, so a write based on a stale read fails instead of overwriting;
+ * the column defaults to 0 so ddl-auto can add it to existing rows. The SQL that bypasses
+ * Hibernate (stock reservations, order total deltas, the catalog upsert) bumps it too.
+ *
+ * How a conflict is resolved depends on the write:
+ * - delta-style writes that recompute from the current row (order item changes and deletes)
+ *   are re-run by {@link com.example.config.retry.RetryOnConflict};
+ * - full-replacement PUTs of products, customers and categories carry the version the client
+ *   read and fail with 409 on a mismatch, since re-running them would re-apply a stale payload.
+ */
+package com.example.config.retry;
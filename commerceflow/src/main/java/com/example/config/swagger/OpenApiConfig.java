@@ -49,4 +49,12 @@ public class OpenApiConfig {
                 .pathsToMatch("/api/orders/**")
                 .build();
     }
+
+    @Bean
+    public GroupedOpenApi exportApi() {
+        return GroupedOpenApi.builder()
+                .group("export-api")
+                .pathsToMatch("/api/exports/**")
+                .build();
+    }
 }
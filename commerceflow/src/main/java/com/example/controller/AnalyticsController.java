@@ -0,0 +1,49 @@
+package com.example.controller;
+
+import com.example.config.metrics.QueryBudget;
+import com.example.dto.SalesSeriesDTO;
+import com.example.dto.SalesTotalDTO;
+import com.example.service.analytics.SalesAnalyticsService;
+import com.example.service.analytics.SalesDimension;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Sales reports from the daily rollups; {dimension} is products, categories or customers
+@RestController
+@RequestMapping("/api/analytics/sales")
+public class AnalyticsController {
+
+    private final SalesAnalyticsService svc;
+
+    public AnalyticsController(SalesAnalyticsService svc) {
+        this.svc = svc;
+    }
+
+    // Top N by revenue over a date range (inclusive)
+    @QueryBudget(1)
+    @GetMapping("/{dimension}")
+    public ResponseEntity<List<SalesTotalDTO>> top(
+            @PathVariable String dimension,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(svc.top(SalesDimension.fromPath(dimension), from, to, limit));
+    }
+
+    // Daily series of one product / category / customer over a date range (inclusive)
+    @QueryBudget(1)
+    @GetMapping("/{dimension}/{id}")
+    public ResponseEntity<SalesSeriesDTO> series(
+            @PathVariable String dimension,
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(svc.series(SalesDimension.fromPath(dimension), id, from, to));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.controller;
 
+import com.example.config.metrics.QueryBudget;
 import com.example.dto.CategoryCreateDTO;
 import com.example.dto.CategoryDTO;
 import com.example.dto.CategoryUpdateDTO;
@@ -26,6 +27,7 @@ public class CategoryController {
     }
 
     // GET all categories (supports optional pagination + optional name filter)
+    @QueryBudget(2)
     @GetMapping
     public ResponseEntity<?> getAll(
             @RequestParam(required = false) String name,
@@ -47,6 +49,7 @@ public class CategoryController {
     }
 
     // GET category by ID
+    @QueryBudget(1)
     @GetMapping("/{id}")
     public ResponseEntity<CategoryDTO> getById(@PathVariable Long id) {
         return ResponseEntity.ok(categoryService.getById(id));
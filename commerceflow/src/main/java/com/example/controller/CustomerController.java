@@ -1,8 +1,12 @@
 package com.example.controller;
 
+import com.example.config.metrics.QueryBudget;
+import com.example.dto.CursorPage;
 import com.example.dto.CustomerCreateDTO;
 import com.example.dto.CustomerDTO;
+import com.example.dto.CustomerOrderSummaryDTO;
 import com.example.dto.CustomerUpdateDTO;
+import com.example.service.CustomerOrderHistoryService;
 import com.example.service.CustomerService;
 
 import jakarta.validation.Valid;
@@ -21,21 +25,29 @@ public class CustomerController {
     @Autowired
     private CustomerService svc;
 
+    @Autowired
+    private CustomerOrderHistoryService historySvc;
+
     // GET all customers (with optional pagination + name filter)
+    // withTotal=false returns a slice (no total count) for infinite-scroll clients
+    @QueryBudget(2)
     @GetMapping
     public ResponseEntity<?> getAll(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "true") boolean withTotal
     ) {
         Sort sort = sortDir.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
 
         if (page != null && size != null) {
-            return ResponseEntity.ok(svc.getAllPaged(name, page, size, sort));
+            return withTotal
+                    ? ResponseEntity.ok(svc.getAllPaged(name, page, size, sort))
+                    : ResponseEntity.ok(svc.getSlice(name, page, size, sort));
         }
 
         List<CustomerDTO> list = svc.getAllWithoutPaging(name, sort);
@@ -43,11 +55,23 @@ public class CustomerController {
     }
 
     // GET by ID
+    @QueryBudget(1)
     @GetMapping("/{id}")
     public ResponseEntity<CustomerDTO> getOne(@PathVariable Long id) {
         return ResponseEntity.ok(svc.getById(id));
     }
 
+    // Order history, newest first (keyset pagination via ?cursor=), from the order-summary read model
+    @QueryBudget(2)
+    @GetMapping("/{id}/orders")
+    public ResponseEntity<CursorPage<CustomerOrderSummaryDTO>> orders(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(historySvc.getHistory(id, cursor, size));
+    }
+
     // CREATE
     @PostMapping
     public ResponseEntity<CustomerDTO> create(@Valid @RequestBody CustomerCreateDTO dto) {
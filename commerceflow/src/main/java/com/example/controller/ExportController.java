@@ -0,0 +1,71 @@
+package com.example.controller;
+
+import com.example.service.ExportService;
+import com.example.service.ExportService.Format;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final ExportService svc;
+
+    public ExportController(ExportService svc) {
+        this.svc = svc;
+    }
+
+    // Export all customers (?format=ndjson|csv)
+    @GetMapping("/customers")
+    public ResponseEntity<StreamingResponseBody> customers(@RequestParam(defaultValue = "ndjson") String format) {
+        return stream("customers", format, svc::exportCustomers);
+    }
+
+    // Export all products
+    @GetMapping("/products")
+    public ResponseEntity<StreamingResponseBody> products(@RequestParam(defaultValue = "ndjson") String format) {
+        return stream("products", format, svc::exportProducts);
+    }
+
+    // Export order headers (no items)
+    @GetMapping("/orders")
+    public ResponseEntity<StreamingResponseBody> orders(@RequestParam(defaultValue = "ndjson") String format) {
+        return stream("orders", format, svc::exportOrders);
+    }
+
+    // Export all order items
+    @GetMapping("/order-items")
+    public ResponseEntity<StreamingResponseBody> orderItems(@RequestParam(defaultValue = "ndjson") String format) {
+        return stream("order-items", format, svc::exportOrderItems);
+    }
+
+    // Rows are written as they are read; nothing is buffered beyond the output buffer
+    private ResponseEntity<StreamingResponseBody> stream(String name, String formatParam,
+                                                         BiConsumer<Format, OutputStream> exporter) {
+        Format format = Format.parse(formatParam);
+        boolean csv = format == Format.CSV;
+
+        StreamingResponseBody body = out -> exporter.accept(format, out);
+
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + (csv ? ".csv" : ".ndjson"))
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -1,89 +1,132 @@
 package com.example.controller;
 
+import com.example.config.metrics.QueryBudget;
+import com.example.dto.BulkOrderResponseDTO;
+import com.example.dto.CursorPage;
 import com.example.dto.OrderCreateDTO;
 import com.example.dto.OrderDTO;
-import com.example.dto.OrderItemDTO;
-import com.example.entity.Order;
-import com.example.entity.OrderItem;
+import com.example.dto.OrderFilter;
+import com.example.dto.OrderStatusDTO;
+import com.example.dto.OrderSummaryDTO;
+import com.example.service.AsyncOrderService;
+import com.example.service.IdempotencyService;
+import com.example.service.OrderBulkService;
 import com.example.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final OrderService svc;
+    private final OrderBulkService bulkSvc;
+    private final IdempotencyService idempotency;
+    private final AsyncOrderService async;
 
-    public OrderController(OrderService svc) {
+    public OrderController(OrderService svc, OrderBulkService bulkSvc, IdempotencyService idempotency,
+                           AsyncOrderService async) {
         this.svc = svc;
+        this.bulkSvc = bulkSvc;
+        this.idempotency = idempotency;
+        this.async = async;
     }
 
-    /**
-     * Create order and return a safe DTO (no entity graph / no recursion).
-     * Marked @Transactional so lazy associations created/loaded inside service remain accessible while mapping.
-     */
+    // Create order (mapped to DTO inside the service transaction). With an Idempotency-Key header,
+    // retries of the same request replay the first response instead of creating another order.
+    // With "Prefer: respond-async" the order is only validated and queued: 202 + status URL.
+    @QueryBudget(14)
     @PostMapping
-    @Transactional
-    public ResponseEntity<OrderDTO> create(@Valid @RequestBody OrderCreateDTO dto) {
-        Order order = svc.createOrder(dto);               // persisted inside service transaction
-        OrderDTO response = mapToDto(order);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> create(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(name = "Prefer", required = false) String prefer,
+            @Valid @RequestBody OrderCreateDTO dto
+    ) {
+        if (prefer != null && prefer.contains(RESPOND_ASYNC) && async.isEnabled()) {
+            return accept(idempotencyKey, dto);
+        }
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(svc.createOrder(dto));
+        }
+        IdempotencyService.Outcome<OrderDTO> outcome =
+                idempotency.execute("orders", idempotencyKey, dto, OrderDTO.class, () -> svc.createOrder(dto));
+        return ResponseEntity.ok()
+                .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                .body(outcome.response());
     }
 
-    /**
-     * Get order by id and return DTO. @Transactional keeps session open during mapping so lazy fields can be accessed.
-     */
-    @GetMapping("/{id}")
-    @Transactional
-    public ResponseEntity<OrderDTO> get(@PathVariable Long id) {
-        Order order = svc.getOrder(id);
-        OrderDTO response = mapToDto(order);
-        return ResponseEntity.ok(response);
+    private ResponseEntity<OrderStatusDTO> accept(String idempotencyKey, OrderCreateDTO dto) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.accepted().header("Preference-Applied", RESPOND_ASYNC);
+        OrderStatusDTO status;
+        if (idempotencyKey == null) {
+            status = async.accept(dto);
+        } else {
+            IdempotencyService.Outcome<OrderStatusDTO> outcome =
+                    idempotency.execute("orders-async", idempotencyKey, dto, OrderStatusDTO.class, () -> async.accept(dto));
+            response.header("Idempotent-Replayed", String.valueOf(outcome.replayed()));
+            status = outcome.response();
+        }
+        return response.location(URI.create("/api/orders/" + status.getOrderId() + "/status")).body(status);
     }
 
-    @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        svc.deleteOrder(id);
-        return ResponseEntity.noContent().build();
+    // Placement status: PENDING -> CONFIRMED | REJECTED for async orders, NEW for the others
+    @QueryBudget(1)
+    @GetMapping("/{id}/status")
+    public ResponseEntity<OrderStatusDTO> status(@PathVariable Long id) {
+        return ResponseEntity.ok(async.status(id));
     }
 
-    /* -------------------------
-       Inline mapping helpers
-       ------------------------- */
+    // Bulk create from a JSON array or NDJSON stream; returns per-order results, failures don't abort the batch
+    @QueryBudget(QueryBudget.UNLIMITED)
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkOrderResponseDTO> bulk(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkSvc.ingest(request.getInputStream()));
+    }
 
-    private OrderDTO mapToDto(Order order) {
-        if (order == null) return null;
+    // List order headers (keyset pagination via ?cursor=, newest first by default);
+    // ?expand=items adds each order's items with one extra query for the page
+    @QueryBudget(2)
+    @GetMapping
+    public ResponseEntity<CursorPage<OrderSummaryDTO>> list(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String expand
+    ) {
+        OrderFilter filter = OrderFilter.builder()
+                .customerId(customerId)
+                .status(status)
+                .from(from)
+                .to(to)
+                .build();
 
-        List<OrderItemDTO> items = order.getItems() == null
-                ? List.of()
-                : order.getItems().stream().map(this::mapItemToDto).collect(Collectors.toList());
+        return ResponseEntity.ok(svc.searchOrders(filter, sortDir, cursor, size, "items".equals(expand)));
+    }
 
-        return OrderDTO.builder()
-                .id(order.getId())
-                .customerId(order.getCustomer() != null ? order.getCustomer().getId() : null)
-                .customerFirstName(order.getCustomer() != null ? order.getCustomer().getFirstName() : null)
-                .orderDate(order.getOrderDate())
-                .status(order.getStatus())
-                .total(order.getTotal())
-                .items(items)
-                .build();
+    // Get order with customer and items (single fetch-join query)
+    @QueryBudget(2)
+    @GetMapping("/{id}")
+    public ResponseEntity<OrderDTO> get(@PathVariable Long id) {
+        return ResponseEntity.ok(svc.getOrder(id));
     }
 
-    private OrderItemDTO mapItemToDto(OrderItem item) {
-        if (item == null) return null;
-        return new OrderItemDTO(
-                item.getId(),
-                item.getOrder() != null ? item.getOrder().getId() : null,
-                item.getProduct() != null ? item.getProduct().getId() : null,
-                item.getUnitPrice(),
-                item.getQuantity(),
-                item.getLineTotal()
-        );
+    // Delete order (items cascade)
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        svc.deleteOrder(id);
+        return ResponseEntity.noContent().build();
     }
 }
@@ -1,5 +1,6 @@
 package com.example.controller;
 
+import com.example.config.metrics.QueryBudget;
 import com.example.dto.OrderItemCreateDTO;
 import com.example.dto.OrderItemDTO;
 import com.example.dto.OrderItemUpdateDTO;
@@ -31,12 +32,14 @@ public class OrderItemController {
     }
 
     // List items for an order (nested)
+    @QueryBudget(3)
     @GetMapping("/orders/{orderId}/items")
     public ResponseEntity<List<OrderItemDTO>> listByOrder(@PathVariable Long orderId) {
         return ResponseEntity.ok(svc.getItemsByOrder(orderId));
     }
 
     // Get single item (top-level)
+    @QueryBudget(2)
     @GetMapping("/order-items/{id}")
     public ResponseEntity<OrderItemDTO> getItem(@PathVariable Long id) {
         return ResponseEntity.ok(svc.getItem(id));
@@ -1,15 +1,20 @@
 package com.example.controller;
 
+import com.example.config.metrics.QueryBudget;
 import com.example.dto.*;
+import com.example.service.ProductBulkService;
 import com.example.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URI;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
@@ -18,6 +23,7 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductBulkService productBulkService;
 
     // Create
     @PostMapping
@@ -27,13 +33,40 @@ public class ProductController {
         return ResponseEntity.created(URI.create("/api/products/" + created.getId())).body(created);
     }
 
-    // List all
+    // Bulk upsert by SKU (JSON array or NDJSON stream) for catalog syncs
+    @QueryBudget(QueryBudget.UNLIMITED)
+    @PostMapping(value = "/bulk-upsert", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ProductUpsertResultDTO> bulkUpsert(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(productBulkService.upsert(request.getInputStream()));
+    }
+
+    // List catalog (keyset pagination via ?cursor=, optional filters)
+    @QueryBudget(3)
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> listAll() {
-        return ResponseEntity.ok(productService.getAll());
+    public ResponseEntity<CursorPage<ProductDTO>> list(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir
+    ) {
+        ProductFilter filter = ProductFilter.builder()
+                .categoryId(categoryId)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .name(name)
+                .inStock(inStock)
+                .build();
+
+        return ResponseEntity.ok(productService.searchCatalog(filter, sortBy, sortDir, cursor, size));
     }
 
     // Get by id
+    @QueryBudget(2)
     @GetMapping("/{id}")
     public ResponseEntity<ProductDTO> get(@PathVariable Long id) {
         return ResponseEntity.ok(productService.getById(id));
@@ -0,0 +1,18 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Outcome of one order in a bulk request; index is the position in the submitted payload
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderResultDTO {
+    private int index;
+    private String status;      // CREATED | FAILED
+    private Long orderId;
+    private String error;
+}
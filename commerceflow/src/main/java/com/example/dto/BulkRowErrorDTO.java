@@ -0,0 +1,17 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// A rejected row of a bulk request; index is the position in the submitted payload
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRowErrorDTO {
+    private int index;
+    private String key;
+    private String error;
+}
@@ -17,4 +17,5 @@ public class CategoryDTO {
     private String name;
     private String description;
     private Instant createdAt;  // FIXED
+    private Long version;
 }
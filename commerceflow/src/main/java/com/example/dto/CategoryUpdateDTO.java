@@ -1,6 +1,7 @@
 package com.example.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
@@ -14,4 +15,8 @@ public class CategoryUpdateDTO {
     private String name;
 
     private String description;
+
+    // the version the client read; a PUT over a newer version is rejected with 409
+    @NotNull(message = "version is required")
+    private Long version;
 }
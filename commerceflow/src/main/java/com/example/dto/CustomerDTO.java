@@ -15,4 +15,5 @@ public class CustomerDTO {
     private String email;
     private String phone;
     private Instant createdAt;
+    private Long version;
 }
@@ -0,0 +1,22 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// One line of a customer's order history (read model, no items)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOrderSummaryDTO {
+    private Long orderId;
+    private Instant orderDate;
+    private String status;
+    private BigDecimal total;
+    private int itemCount;
+}
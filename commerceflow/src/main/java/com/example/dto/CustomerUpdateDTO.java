@@ -1,6 +1,7 @@
 package com.example.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -27,4 +28,8 @@ public class CustomerUpdateDTO {
         message = "Phone must be digits (optional +), length 5-20"
     )
     private String phone;
+
+    // the version the client read; a PUT over a newer version is rejected with 409
+    @NotNull(message = "version is required")
+    private Long version;
 }
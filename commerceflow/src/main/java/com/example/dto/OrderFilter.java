@@ -0,0 +1,18 @@
+package com.example.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+// Optional order listing filters; null fields are not applied
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderFilter {
+    private Long customerId;
+    private String status;
+    private Instant from;       // orderDate >= from
+    private Instant to;         // orderDate < to
+}
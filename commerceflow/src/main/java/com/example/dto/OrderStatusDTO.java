@@ -0,0 +1,19 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Placement status of an order; reason is set for REJECTED orders
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderStatusDTO {
+    private Long orderId;
+    private String status;
+    private String reason;
+}
@@ -0,0 +1,34 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+// Order header without items (exports / listings); items only when expanded on request
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderSummaryDTO {
+    private Long id;
+    private Long customerId;
+    private Instant orderDate;
+    private String status;
+    private BigDecimal total;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<OrderItemDTO> items;
+
+    // JPQL constructor expression (header only)
+    public OrderSummaryDTO(Long id, Long customerId, Instant orderDate, String status, BigDecimal total) {
+        this.id = id;
+        this.customerId = customerId;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.total = total;
+    }
+}
@@ -18,4 +18,5 @@ public class ProductDTO {
     private BigDecimal price;
     private Integer quantity;
     private Instant createdAt;
+    private Long version;
 }
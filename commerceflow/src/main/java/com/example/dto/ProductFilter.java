@@ -0,0 +1,19 @@
+package com.example.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// Optional catalog filters; null fields are not applied
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFilter {
+    private Long categoryId;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private String name;        // case-insensitive substring
+    private Boolean inStock;    // true → quantity > 0, false → quantity = 0
+}
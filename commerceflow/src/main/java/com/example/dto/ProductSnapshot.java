@@ -0,0 +1,7 @@
+package com.example.dto;
+
+import java.math.BigDecimal;
+
+// Immutable subset of a product needed to price and categorise order lines (safe to share from a cache)
+public record ProductSnapshot(Long id, BigDecimal price, Long categoryId) {
+}
@@ -24,4 +24,8 @@ public class ProductUpdateDTO {
     @NotNull(message = "quantity is required")
     @Min(value = 0, message = "quantity must be non-negative")
     private Integer quantity;
+
+    // the version the client read; a PUT over a newer version is rejected with 409
+    @NotNull(message = "version is required")
+    private Long version;
 }
@@ -0,0 +1,21 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductUpsertResultDTO {
+    private int received;
+    private int inserted;
+    private int updated;
+    private int unchanged;      // content hash matched, row not written
+    private int failed;
+    private List<BulkRowErrorDTO> errors;
+}
@@ -0,0 +1,25 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Daily sales of one product / category / customer; days without sales are omitted
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesSeriesDTO {
+    private String dimension;
+    private Long id;
+    private LocalDate from;
+    private LocalDate to;
+    private long units;
+    private BigDecimal revenue;
+    private List<SalesDayDTO> days;
+}
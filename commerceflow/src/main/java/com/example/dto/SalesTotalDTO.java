@@ -0,0 +1,19 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+// Units and revenue of one product / category / customer over a date range
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesTotalDTO {
+    private Long id;
+    private long units;
+    private BigDecimal revenue;
+}
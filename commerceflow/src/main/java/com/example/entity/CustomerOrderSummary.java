@@ -0,0 +1,44 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Denormalized order history row, one per order: everything a customer's history page shows,
+ * without touching orders or order_items. Kept in step with the order in the same transaction
+ * by {@link com.example.service.CustomerOrderHistoryService}; no foreign keys, it is a read model.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "customer_order_summaries", indexes = {
+        // history page = one range scan: customer_id = ? ORDER BY order_date DESC, order_id DESC
+        @Index(name = "idx_customer_order_summaries_history", columnList = "customer_id, order_date DESC, order_id DESC")
+})
+public class CustomerOrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "order_date", nullable = false)
+    private Instant orderDate;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+}
@@ -0,0 +1,38 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Response of a request made with an Idempotency-Key, shared by all application
+ * instances. The row is inserted before the request is executed and completed with the
+ * response in the same transaction, so a committed row always carries its response.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    // scope:key, e.g. orders:6f1c...
+    @Id
+    @Column(name = "idempotency_key", length = 300)
+    private String key;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(columnDefinition = "text")
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
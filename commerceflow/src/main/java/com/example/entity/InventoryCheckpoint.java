@@ -0,0 +1,26 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Highest hot-inventory journal sequence already applied to products.quantity.
+ * Written in the same transaction as the quantities, so journal replay after a
+ * crash never applies a delta twice.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "inventory_checkpoints")
+public class InventoryCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+}
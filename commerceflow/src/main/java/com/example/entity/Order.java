@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -18,14 +19,32 @@ import java.math.BigDecimal;
 @Getter
 @Setter
 @NoArgsConstructor
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // order listing: each filter is an equality prefix, then the keyset (order_date, id)
+        @Index(name = "idx_orders_customer_date", columnList = "customer_id, order_date DESC, id DESC"),
+        @Index(name = "idx_orders_status_date", columnList = "status, order_date, id"),
+        @Index(name = "idx_orders_date", columnList = "order_date, id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Order {
 
+    // NEW: created synchronously. PENDING -> CONFIRMED | REJECTED: accepted by the async pipeline
+    public static final String STATUS_NEW = "NEW";
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_CONFIRMED = "CONFIRMED";
+    public static final String STATUS_REJECTED = "REJECTED";
+
+    // Pooled sequence (not IDENTITY) so Hibernate can batch the INSERTs
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     // Many Orders → One Customer (cascade delete customer -> orders handled on Customer side)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.CONSTRAINT))
@@ -36,7 +55,7 @@ public class Order {
     private Instant orderDate = Instant.now();
 
     @Column(nullable = false)
-    private String status = "NEW";
+    private String status = STATUS_NEW;
 
     @Column(name = "total", nullable = false, precision = 19, scale = 2)
     private BigDecimal total = BigDecimal.ZERO;
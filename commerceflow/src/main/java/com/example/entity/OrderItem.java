@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -15,14 +16,24 @@ import java.math.BigDecimal;
 @Getter
 @Setter
 @NoArgsConstructor
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        // items of an order (item listing, ?expand=items); Postgres does not index foreign keys itself
+        @Index(name = "idx_order_items_order_id", columnList = "order_id, id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class OrderItem {
 
+    // Pooled sequence (not IDENTITY) so Hibernate can batch the INSERTs
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     // Many OrderItems → One Order (cascade delete order -> items)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.CONSTRAINT))
@@ -37,6 +48,11 @@ public class OrderItem {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Product product;
 
+    // The product's category when the line was written; sales reversals book against it, so they
+    // hit the same rollup bucket even after the product moves. Nullable so ddl-auto can add it.
+    @Column(name = "category_id")
+    private Long categoryId;
+
     @Column(name = "unit_price", nullable = false, precision = 19, scale = 2)
     private BigDecimal unitPrice;
 
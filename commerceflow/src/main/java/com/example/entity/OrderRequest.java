@@ -0,0 +1,45 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * Request body of an order accepted by the async pipeline, stored with its PENDING order
+ * so the order can be placed after a restart. Deleted when the order is confirmed; kept
+ * with the reason when it is rejected. The database removes it with its order (order or
+ * customer delete).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "order_requests")
+public class OrderRequest {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    // Shares the order's id; rows are written with JDBC, this only maps the FK
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @MapsId
+    @JoinColumn(name = "order_id", foreignKey = @ForeignKey(ConstraintMode.CONSTRAINT))
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Order order;
+
+    // OrderCreateDTO as JSON
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "accepted_at", nullable = false)
+    private Instant acceptedAt;
+
+    @Column(length = 1000)
+    private String reason;
+}
@@ -0,0 +1,42 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Event written in the same transaction as the change it describes (transactional outbox)
+ * and deleted by {@link com.example.service.outbox.OutboxRelay} once the sinks have it.
+ * Ids grow in commit order per aggregate (every write to an order holds its row lock when
+ * appending), which is what the relay's per-order ordering relies on.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_events_aggregate", columnList = "aggregate_id, id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    // JSON
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
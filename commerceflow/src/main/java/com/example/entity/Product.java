@@ -3,11 +3,17 @@ package com.example.entity;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // keyset pagination / catalog filters (name substring uses a trigram index, see db/postgresql)
+        @Index(name = "idx_products_category_id", columnList = "category_id, id"),
+        @Index(name = "idx_products_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_products_price", columnList = "price")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Product {
@@ -15,6 +21,11 @@ public class Product {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     @Column(nullable = false, unique = true)
     private String sku;
 
@@ -31,6 +42,10 @@ public class Product {
     @Column(nullable = false)
     private Integer quantity;
 
+    // SHA-256 of the synced fields; lets catalog syncs skip rows that did not change
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -0,0 +1,46 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Signed sales delta appended by an order or item write, in the same transaction.
+ * Append-only, so checkout never contends on a shared counter row; the compactor
+ * folds entries into {@link SalesRollup} and deletes them.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "sales_ledger")
+public class SalesLedgerEntry {
+
+    // IDENTITY: rows are only ever written by INSERT ... SELECT, never persisted one by one
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // the order's date decides the rollup day, whenever the item was changed
+    @Column(name = "order_date", nullable = false)
+    private Instant orderDate;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+}
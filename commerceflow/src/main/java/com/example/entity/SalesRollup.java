@@ -0,0 +1,55 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Units and revenue of one product, category or customer on one (UTC) day.
+ * The primary key serves per-subject series; the (dimension, sale_date) index serves
+ * "top N over a date range".
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@IdClass(SalesRollup.Key.class)
+@Table(name = "sales_rollups", indexes = {
+        @Index(name = "idx_sales_rollups_dimension_date", columnList = "dimension, sale_date")
+})
+public class SalesRollup {
+
+    @Id
+    @Column(length = 16)
+    private String dimension;
+
+    @Id
+    @Column(name = "dimension_id")
+    private Long dimensionId;
+
+    @Id
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String dimension;
+        private Long dimensionId;
+        private LocalDate saleDate;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -27,6 +30,27 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(409).body(err);
     }
 
+    // Version conflict that survived the service-level retries
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLock(OptimisticLockingFailureException ex, HttpServletRequest req) {
+        ApiError err = new ApiError(409, "Conflict", "The resource was modified concurrently, please retry", req.getRequestURI());
+        return ResponseEntity.status(409).body(err);
+    }
+
+    // A bounded queue is full: ask the client to come back shortly
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiError> handleUnavailable(ServiceUnavailableException ex, HttpServletRequest req) {
+        ApiError err = new ApiError(503, "Service Unavailable", ex.getMessage(), req.getRequestURI());
+        return ResponseEntity.status(503).header("Retry-After", "1").body(err);
+    }
+
+    // Pool (or connection gate) exhausted: shed load instead of reporting an internal error
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<ApiError> handleNoConnection(RuntimeException ex, HttpServletRequest req) {
+        ApiError err = new ApiError(503, "Service Unavailable", "Database busy, please retry", req.getRequestURI());
+        return ResponseEntity.status(503).body(err);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest req) {
 
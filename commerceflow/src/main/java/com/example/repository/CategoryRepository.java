@@ -1,13 +1,27 @@
 package com.example.repository;
 
+import com.example.dto.CategoryDTO;
 import com.example.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     boolean existsByNameIgnoreCase(String name);
 
     Page<Category> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    // DTO projections for list endpoints (no managed entities)
+    @Query("select new com.example.dto.CategoryDTO(c.id, c.name, c.description, c.createdAt, c.version) from Category c")
+    List<CategoryDTO> findAllAsDto(Sort sort);
+
+    // :pattern is an already lower-cased, escaped LIKE pattern (see LikePatterns)
+    @Query("select new com.example.dto.CategoryDTO(c.id, c.name, c.description, c.createdAt, c.version) from Category c " +
+           "where lower(c.name) like :pattern escape '\\'")
+    List<CategoryDTO> searchAsDtoByName(String pattern, Sort sort);
 }
@@ -0,0 +1,64 @@
+package com.example.repository;
+
+import com.example.dto.CustomerOrderSummaryDTO;
+import com.example.entity.CustomerOrderSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface CustomerOrderSummaryRepository extends JpaRepository<CustomerOrderSummary, Long> {
+
+    // First history page, newest first
+    @Query("select new com.example.dto.CustomerOrderSummaryDTO(s.orderId, s.orderDate, s.status, s.total, s.itemCount) " +
+           "from CustomerOrderSummary s where s.customerId = :customerId " +
+           "order by s.orderDate desc, s.orderId desc")
+    List<CustomerOrderSummaryDTO> findHistory(@Param("customerId") Long customerId, Limit limit);
+
+    // Following pages: seek strictly past the last row of the previous one
+    @Query("select new com.example.dto.CustomerOrderSummaryDTO(s.orderId, s.orderDate, s.status, s.total, s.itemCount) " +
+           "from CustomerOrderSummary s where s.customerId = :customerId " +
+           "and (s.orderDate < :afterDate or (s.orderDate = :afterDate and s.orderId < :afterId)) " +
+           "order by s.orderDate desc, s.orderId desc")
+    List<CustomerOrderSummaryDTO> findHistoryAfter(@Param("customerId") Long customerId,
+                                                   @Param("afterDate") Instant afterDate,
+                                                   @Param("afterId") Long afterId,
+                                                   Limit limit);
+
+    // Rows for new orders copied from the orders just written (flushed first), one statement per batch
+    @Modifying
+    @Query("insert into CustomerOrderSummary (orderId, customerId, orderDate, status, total, itemCount) " +
+           "select o.id, o.customer.id, o.orderDate, o.status, o.total, size(o.items) " +
+           "from Order o where o.id in :orderIds")
+    int insertFromOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    // Async orders: the row inserted on accept takes the status, total and item count of the placed order
+    @Modifying
+    @Query("update CustomerOrderSummary s set " +
+           "s.status = (select o.status from Order o where o.id = s.orderId), " +
+           "s.total = (select o.total from Order o where o.id = s.orderId), " +
+           "s.itemCount = (select cast(count(i) as Integer) from OrderItem i where i.order.id = s.orderId) " +
+           "where s.orderId in :orderIds")
+    int refreshFromOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("update CustomerOrderSummary s set s.total = s.total + :totalDelta, s.itemCount = s.itemCount + :itemDelta " +
+           "where s.orderId = :orderId")
+    int applyDelta(@Param("orderId") Long orderId,
+                   @Param("totalDelta") BigDecimal totalDelta,
+                   @Param("itemDelta") int itemDelta);
+
+    @Modifying
+    @Query("delete from CustomerOrderSummary s where s.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("delete from CustomerOrderSummary s where s.customerId = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
+}
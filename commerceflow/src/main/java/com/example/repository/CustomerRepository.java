@@ -1,13 +1,60 @@
 package com.example.repository;
 
+import com.example.dto.CustomerDTO;
 import com.example.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     boolean existsByEmailIgnoreCase(String email);
 
     Optional<Customer> findByEmailIgnoreCase(String email);
+
+    String SELECT_DTO =
+            "select new com.example.dto.CustomerDTO(c.id, c.firstName, c.lastName, c.email, c.phone, c.createdAt, c.version) " +
+            "from Customer c";
+
+    // :pattern is an already lower-cased, escaped LIKE pattern (e.g. "%ann%"); served by the trigram indexes
+    String NAME_MATCHES =
+            " where lower(c.firstName) like :pattern escape '\\' or lower(c.lastName) like :pattern escape '\\'";
+
+    // DTO projection for list endpoints (no managed entities)
+    @Query(SELECT_DTO)
+    List<CustomerDTO> findAllAsDto(Sort sort);
+
+    @Query(value = SELECT_DTO, countQuery = "select count(c) from Customer c")
+    Page<CustomerDTO> findAllAsDto(Pageable pageable);
+
+    // Slice variants fetch size + 1 rows and skip the COUNT(*) entirely
+    @Query(SELECT_DTO)
+    Slice<CustomerDTO> findSliceAsDto(Pageable pageable);
+
+    @Query(SELECT_DTO + NAME_MATCHES)
+    List<CustomerDTO> searchByName(String pattern, Sort sort);
+
+    @Query(value = SELECT_DTO + NAME_MATCHES, countQuery = "select count(c) from Customer c" + NAME_MATCHES)
+    Page<CustomerDTO> searchByName(String pattern, Pageable pageable);
+
+    @Query(SELECT_DTO + NAME_MATCHES)
+    Slice<CustomerDTO> searchSliceByName(String pattern, Pageable pageable);
+
+    // Forward-only cursor for exports; must be consumed (and closed) inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_DTO + " order by c.id")
+    Stream<CustomerDTO> streamAllAsDto();
 }
@@ -0,0 +1,22 @@
+package com.example.repository;
+
+/**
+ * LIKE patterns built from user input, for queries that compare against lower(column)
+ * with {@code escape '\'}.
+ */
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    /**
+     * "%term%" trimmed and lower-cased, with the LIKE wildcards in the term escaped.
+     */
+    public static String contains(String term) {
+        return "%" + escape(term.trim().toLowerCase()) + "%";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,7 +1,38 @@
 package com.example.repository;
 
+import com.example.dto.OrderItemDTO;
 import com.example.entity.OrderItem;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    // Forward-only cursor for exports; must be consumed (and closed) inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.dto.OrderItemDTO(i.id, i.order.id, i.product.id, i.unitPrice, i.quantity, i.lineTotal) " +
+           "from OrderItem i order by i.id")
+    Stream<OrderItemDTO> streamAllAsDto();
+
+    // Items of a page of orders in one statement (?expand=items on the order listing)
+    @Query("select new com.example.dto.OrderItemDTO(i.id, i.order.id, i.product.id, i.unitPrice, i.quantity, i.lineTotal) " +
+           "from OrderItem i where i.order.id in :orderIds order by i.order.id, i.id")
+    List<OrderItemDTO> findDtosByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // SELECT ... FOR UPDATE: item edits compute their total delta from the current row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OrderItem> findForUpdateById(Long id);
 }
@@ -0,0 +1,10 @@
+package com.example.repository;
+
+import java.time.Instant;
+
+/**
+ * Resume position for order listing, sorted by (orderDate, id).
+ * afterOrderDate and afterId are null on the first page.
+ */
+public record OrderKeyset(boolean descending, Instant afterOrderDate, Long afterId) {
+}
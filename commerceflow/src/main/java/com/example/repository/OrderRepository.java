@@ -1,7 +1,49 @@
 package com.example.repository;
 
+import com.example.dto.OrderSummaryDTO;
 import com.example.entity.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    // Async pipeline: the batch's still-pending orders, row-locked in id order (workers cannot deadlock)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id in :ids and o.status = :status order by o.id")
+    List<Order> lockByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    // Order + customer + items in one statement (read path for GET /api/orders/{id})
+    @EntityGraph(attributePaths = {"customer", "items"})
+    Optional<Order> findWithCustomerAndItemsById(Long id);
+
+    // Forward-only cursor for exports; must be consumed (and closed) inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.dto.OrderSummaryDTO(o.id, o.customer.id, o.orderDate, o.status, o.total) " +
+           "from Order o order by o.id")
+    Stream<OrderSummaryDTO> streamAllSummaries();
+
+    // Atomic total maintenance for item writes: the database applies the delta on the locked
+    // row, so concurrent item edits on one order cannot lose each other's changes.
+    // Bumps the version so a concurrent optimistic write of the same order fails.
+    // Returns the number of rows updated (0 = no such order).
+    @Modifying
+    @Query("update Order o set o.total = o.total + :delta, o.version = o.version + 1 where o.id = :id")
+    int addToTotal(@Param("id") Long id, @Param("delta") BigDecimal delta);
 }
@@ -0,0 +1,15 @@
+package com.example.repository;
+
+import com.example.dto.OrderFilter;
+import com.example.dto.OrderSummaryDTO;
+
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Filtered order headers (no items), newest or oldest first, seeking past the keyset
+     * position instead of using OFFSET.
+     */
+    List<OrderSummaryDTO> searchOrders(OrderFilter filter, OrderKeyset keyset, int limit);
+}
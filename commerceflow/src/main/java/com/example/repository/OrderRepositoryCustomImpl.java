@@ -0,0 +1,68 @@
+package com.example.repository;
+
+import com.example.dto.OrderFilter;
+import com.example.dto.OrderSummaryDTO;
+import com.example.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Criteria query so only the filters actually supplied end up in the WHERE clause; each filter
+// combination has an index whose prefix matches it (see Order)
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<OrderSummaryDTO> searchOrders(OrderFilter filter, OrderKeyset keyset, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<OrderSummaryDTO> q = cb.createQuery(OrderSummaryDTO.class);
+        Root<Order> o = q.from(Order.class);
+
+        Path<Long> id = o.get("id");
+        Path<Instant> orderDate = o.get("orderDate");
+        // customer.id is the FK column, no join
+        Path<Long> customerId = o.get("customer").get("id");
+
+        q.select(cb.construct(OrderSummaryDTO.class,
+                id, customerId, orderDate, o.get("status"), o.get("total")));
+
+        List<Predicate> where = new ArrayList<>();
+
+        if (filter.getCustomerId() != null) {
+            where.add(cb.equal(customerId, filter.getCustomerId()));
+        }
+        if (filter.getStatus() != null && !filter.getStatus().isBlank()) {
+            where.add(cb.equal(o.get("status"), filter.getStatus()));
+        }
+        if (filter.getFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(orderDate, filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            where.add(cb.lessThan(orderDate, filter.getTo()));
+        }
+
+        // keyset seek: strictly after the last row of the previous page
+        if (keyset.afterId() != null) {
+            where.add(keyset.descending()
+                    ? cb.or(cb.lessThan(orderDate, keyset.afterOrderDate()),
+                            cb.and(cb.equal(orderDate, keyset.afterOrderDate()), cb.lessThan(id, keyset.afterId())))
+                    : cb.or(cb.greaterThan(orderDate, keyset.afterOrderDate()),
+                            cb.and(cb.equal(orderDate, keyset.afterOrderDate()), cb.greaterThan(id, keyset.afterId()))));
+        }
+
+        q.where(where.toArray(Predicate[]::new));
+        q.orderBy(keyset.descending()
+                ? List.of(cb.desc(orderDate), cb.desc(id))
+                : List.of(cb.asc(orderDate), cb.asc(id)));
+
+        return em.createQuery(q)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
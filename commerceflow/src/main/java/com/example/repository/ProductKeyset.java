@@ -0,0 +1,10 @@
+package com.example.repository;
+
+import java.time.Instant;
+
+/**
+ * Sort key and resume position for catalog keyset pagination.
+ * afterId (and afterCreatedAt when sorting by createdAt) are null on the first page.
+ */
+public record ProductKeyset(boolean byCreatedAt, boolean descending, Instant afterCreatedAt, Long afterId) {
+}
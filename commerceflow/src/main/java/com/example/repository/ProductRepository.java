@@ -1,11 +1,42 @@
 package com.example.repository;
 
+import com.example.dto.ProductDTO;
+import com.example.dto.ProductSnapshot;
 import com.example.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     boolean existsBySku(String sku);
     long countByCategoryId(Long categoryId);
+
+    @Query("select new com.example.dto.ProductSnapshot(p.id, p.price, p.category.id) from Product p where p.id in :ids")
+    List<ProductSnapshot> findSnapshotsByIdIn(Collection<Long> ids);
+
+    // Current content hash per SKU, used by the bulk upsert to classify rows
+    interface SkuHash {
+        String getSku();
+        String getContentHash();
+    }
+
+    @Query("select p.sku as sku, p.contentHash as contentHash from Product p where p.sku in :skus")
+    List<SkuHash> findContentHashesBySkuIn(Collection<String> skus);
+
+    // Forward-only cursor for exports; must be consumed (and closed) inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.dto.ProductDTO(p.id, p.sku, p.name, c.id, c.name, p.price, p.quantity, p.createdAt, p.version) " +
+           "from Product p join p.category c order by p.id")
+    Stream<ProductDTO> streamAllAsDto();
 }
@@ -0,0 +1,15 @@
+package com.example.repository;
+
+import com.example.dto.ProductDTO;
+import com.example.dto.ProductFilter;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Filtered catalog page as DTOs, seeking past the keyset position instead of using OFFSET,
+     * so every page costs the same regardless of how deep the client has walked.
+     */
+    List<ProductDTO> searchCatalog(ProductFilter filter, ProductKeyset keyset, int limit);
+}
@@ -0,0 +1,83 @@
+package com.example.repository;
+
+import com.example.dto.ProductDTO;
+import com.example.dto.ProductFilter;
+import com.example.entity.Category;
+import com.example.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Criteria query so only the filters actually supplied end up in the WHERE clause (keeps index use predictable)
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<ProductDTO> searchCatalog(ProductFilter filter, ProductKeyset keyset, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ProductDTO> q = cb.createQuery(ProductDTO.class);
+        Root<Product> p = q.from(Product.class);
+        Join<Product, Category> c = p.join("category");
+
+        q.select(cb.construct(ProductDTO.class,
+                p.get("id"), p.get("sku"), p.get("name"), c.get("id"), c.get("name"),
+                p.get("price"), p.get("quantity"), p.get("createdAt"), p.get("version")));
+
+        List<Predicate> where = new ArrayList<>();
+
+        if (filter.getCategoryId() != null) {
+            where.add(cb.equal(c.get("id"), filter.getCategoryId()));
+        }
+        if (filter.getMinPrice() != null) {
+            where.add(cb.greaterThanOrEqualTo(p.get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            where.add(cb.lessThanOrEqualTo(p.get("price"), filter.getMaxPrice()));
+        }
+        if (filter.getName() != null && !filter.getName().isBlank()) {
+            where.add(cb.like(cb.lower(p.get("name")), LikePatterns.contains(filter.getName()), '\\'));
+        }
+        if (filter.getInStock() != null) {
+            where.add(filter.getInStock()
+                    ? cb.greaterThan(p.get("quantity"), 0)
+                    : cb.lessThanOrEqualTo(p.get("quantity"), 0));
+        }
+
+        Path<Long> id = p.get("id");
+        Path<Instant> createdAt = p.get("createdAt");
+
+        // keyset seek: strictly after the last row of the previous page
+        if (keyset.afterId() != null) {
+            if (keyset.byCreatedAt()) {
+                where.add(keyset.descending()
+                        ? cb.or(cb.lessThan(createdAt, keyset.afterCreatedAt()),
+                                cb.and(cb.equal(createdAt, keyset.afterCreatedAt()), cb.lessThan(id, keyset.afterId())))
+                        : cb.or(cb.greaterThan(createdAt, keyset.afterCreatedAt()),
+                                cb.and(cb.equal(createdAt, keyset.afterCreatedAt()), cb.greaterThan(id, keyset.afterId()))));
+            } else {
+                where.add(keyset.descending()
+                        ? cb.lessThan(id, keyset.afterId())
+                        : cb.greaterThan(id, keyset.afterId()));
+            }
+        }
+
+        q.where(where.toArray(Predicate[]::new));
+
+        List<jakarta.persistence.criteria.Order> orderBy = new ArrayList<>();
+        if (keyset.byCreatedAt()) {
+            orderBy.add(keyset.descending() ? cb.desc(createdAt) : cb.asc(createdAt));
+        }
+        orderBy.add(keyset.descending() ? cb.desc(id) : cb.asc(id));
+        q.orderBy(orderBy);
+
+        return em.createQuery(q)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.repository;
+
+import com.example.entity.SalesLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+// Each write appends its sales deltas with a single INSERT ... SELECT (pending inserts are flushed first)
+public interface SalesLedgerRepository extends JpaRepository<SalesLedgerEntry, Long> {
+
+    // Lines carry the category they were sold in, so reversals land in the bucket the sale did
+    @Modifying
+    @Query("insert into SalesLedgerEntry (orderDate, productId, categoryId, customerId, units, revenue) " +
+           "select o.orderDate, i.product.id, i.categoryId, o.customer.id, i.quantity, i.lineTotal " +
+           "from OrderItem i join i.order o where o.id in :orderIds")
+    int appendOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    // reverses every line of an order, before it is deleted
+    @Modifying
+    @Query("insert into SalesLedgerEntry (orderDate, productId, categoryId, customerId, units, revenue) " +
+           "select o.orderDate, i.product.id, i.categoryId, o.customer.id, -i.quantity, -i.lineTotal " +
+           "from OrderItem i join i.order o where o.id = :orderId")
+    int reverseOrder(@Param("orderId") Long orderId);
+
+    // reverses every order of a customer, before the customer (and, by cascade, the orders) is deleted
+    @Modifying
+    @Query("insert into SalesLedgerEntry (orderDate, productId, categoryId, customerId, units, revenue) " +
+           "select o.orderDate, i.product.id, i.categoryId, o.customer.id, -i.quantity, -i.lineTotal " +
+           "from OrderItem i join i.order o where o.customer.id = :customerId")
+    int reverseCustomer(@Param("customerId") Long customerId);
+
+    @Modifying
+    @Query("insert into SalesLedgerEntry (orderDate, productId, categoryId, customerId, units, revenue) " +
+           "select o.orderDate, :productId, :categoryId, o.customer.id, :units, :revenue " +
+           "from Order o where o.id = :orderId")
+    int appendLine(@Param("orderId") Long orderId,
+                   @Param("productId") Long productId,
+                   @Param("categoryId") Long categoryId,
+                   @Param("units") long units,
+                   @Param("revenue") BigDecimal revenue);
+}
@@ -0,0 +1,32 @@
+package com.example.repository;
+
+import com.example.dto.SalesDayDTO;
+import com.example.dto.SalesTotalDTO;
+import com.example.entity.SalesRollup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollup.Key> {
+
+    // primary key range: at most one row per day
+    @Query("select new com.example.dto.SalesDayDTO(r.saleDate, r.units, r.revenue) from SalesRollup r " +
+           "where r.dimension = :dimension and r.dimensionId = :id and r.saleDate between :from and :to " +
+           "order by r.saleDate")
+    List<SalesDayDTO> findDays(@Param("dimension") String dimension,
+                               @Param("id") Long id,
+                               @Param("from") LocalDate from,
+                               @Param("to") LocalDate to);
+
+    @Query("select new com.example.dto.SalesTotalDTO(r.dimensionId, sum(r.units), sum(r.revenue)) from SalesRollup r " +
+           "where r.dimension = :dimension and r.saleDate between :from and :to " +
+           "group by r.dimensionId order by sum(r.revenue) desc, r.dimensionId")
+    List<SalesTotalDTO> findTop(@Param("dimension") String dimension,
+                                @Param("from") LocalDate from,
+                                @Param("to") LocalDate to,
+                                Limit limit);
+}
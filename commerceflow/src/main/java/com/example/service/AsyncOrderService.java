@@ -0,0 +1,430 @@
+package com.example.service;
+
+import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderItemCreateDTO;
+import com.example.dto.OrderStatusDTO;
+import com.example.dto.ProductSnapshot;
+import com.example.entity.Order;
+import com.example.exception.BadRequestException;
+import com.example.exception.ConflictException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.ServiceUnavailableException;
+import com.example.repository.CustomerRepository;
+import com.example.repository.OrderRepository;
+import com.example.service.analytics.SalesLedger;
+import com.example.service.outbox.OrderEvents;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Async order placement (POST /api/orders with Prefer: respond-async).
+ *
+ * {@link #accept} does the cheap part on the request thread: validates the lines, checks the
+ * customer and products (cached snapshots), and stores the order as PENDING, without items,
+ * together with its request body (order_requests) and its PENDING history row, which the
+ * workers update once the order is placed. After commit the order id is queued.
+ * The queue is bounded by {@code queue-capacity}: when it is full, accept fails with 503
+ * before writing anything.
+ *
+ * Worker threads take micro-batches off the queue. A batch runs in one transaction:
+ * - lock the batch's PENDING orders, in id order
+ * - price all lines (one snapshot lookup), reserve all stock (one batch of decrements)
+ * - add the items (JDBC-batched inserts) and mark the orders CONFIRMED
+ * If the batch fails as a whole, each order is retried alone. An order that cannot be placed
+ * (shortfall, missing product) is marked REJECTED with the reason; any other failure (lock
+ * timeout, lost connection) queues it again after a growing delay, and it is REJECTED once it
+ * has failed {@code max-attempts} times.
+ *
+ * The request rows make the queue recoverable: on start every PENDING order with a stored
+ * request is queued again. Locking only PENDING orders makes a second delivery a no-op.
+ */
+@Service
+public class AsyncOrderService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncOrderService.class);
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepo;
+    private final CustomerRepository customerRepo;
+    private final StockReservationService stock;
+    private final CustomerOrderHistoryService history;
+    private final SalesLedger sales;
+    private final OrderEvents events;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectMapper json;
+    private final MeterRegistry meters;
+
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    private final BlockingQueue<Accepted> queue = new LinkedBlockingQueue<>();
+    // one permit per queue slot: taken before the order is stored, returned when a worker takes it
+    private final Semaphore slots;
+
+    private volatile boolean running;
+    private ExecutorService pool;
+    private ScheduledExecutorService retries;
+
+    // failures: how many times placing this order has failed for reasons other than the order itself
+    private record Accepted(Long orderId, OrderCreateDTO request, int failures) {
+
+        Accepted(Long orderId, OrderCreateDTO request) {
+            this(orderId, request, 0);
+        }
+
+        Accepted failedAgain() {
+            return new Accepted(orderId, request, failures + 1);
+        }
+    }
+
+    public AsyncOrderService(OrderService orderService,
+                             OrderRepository orderRepo,
+                             CustomerRepository customerRepo,
+                             StockReservationService stock,
+                             CustomerOrderHistoryService history,
+                             SalesLedger sales,
+                             OrderEvents events,
+                             JdbcTemplate jdbc,
+                             PlatformTransactionManager txManager,
+                             ObjectMapper json,
+                             MeterRegistry meters,
+                             @Value("${commerceflow.orders.async.enabled:true}") boolean enabled,
+                             @Value("${commerceflow.orders.async.queue-capacity:10000}") int queueCapacity,
+                             @Value("${commerceflow.orders.async.workers:2}") int workers,
+                             @Value("${commerceflow.orders.async.batch-size:100}") int batchSize,
+                             @Value("${commerceflow.orders.async.max-attempts:5}") int maxAttempts,
+                             @Value("${commerceflow.orders.async.retry-backoff-ms:1000}") long retryBackoffMs) {
+        this.orderService = orderService;
+        this.orderRepo = orderRepo;
+        this.customerRepo = customerRepo;
+        this.stock = stock;
+        this.history = history;
+        this.sales = sales;
+        this.events = events;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.json = json;
+        this.meters = meters;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.slots = new Semaphore(queueCapacity);
+
+        Gauge.builder("commerceflow.orders.async.queue", queue, Collection::size)
+                .description("Accepted orders waiting for a worker")
+                .register(meters);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validate and store the order as PENDING; it is queued once the transaction commits
+     * (also when the caller's own transaction, e.g. an idempotent request, commits).
+     */
+    @Transactional
+    public OrderStatusDTO accept(OrderCreateDTO dto) {
+        OrderService.validateLines(dto.getItems());
+        if (!customerRepo.existsById(dto.getCustomerId())) {
+            throw new ResourceNotFoundException("Customer not found");
+        }
+        orderService.loadProducts(dto.getItems());
+
+        if (!slots.tryAcquire()) {
+            meters.counter("commerceflow.orders.async.rejected.full").increment();
+            throw new ServiceUnavailableException("Order queue is full, please retry");
+        }
+
+        // queued once committed; on rollback the slot is given back
+        AtomicReference<Accepted> accepted = new AtomicReference<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED && accepted.get() != null) {
+                    queue.add(accepted.get());
+                } else {
+                    slots.release();
+                }
+            }
+        });
+
+        Order order = new Order();
+        order.setCustomer(customerRepo.getReferenceById(dto.getCustomerId()));
+        order.setStatus(Order.STATUS_PENDING);
+        // flushed so the request row's FK and the history row find the order
+        Long orderId = orderRepo.saveAndFlush(order).getId();
+        jdbc.update("INSERT INTO order_requests (order_id, payload, accepted_at) VALUES (?, ?, ?)",
+                orderId, write(dto), Timestamp.from(Instant.now()));
+        // the history row exists from the start (as the startup backfill would create it), PENDING
+        history.recordCreated(List.of(order));
+
+        accepted.set(new Accepted(orderId, dto));
+        return new OrderStatusDTO(orderId, Order.STATUS_PENDING, null);
+    }
+
+    /**
+     * Placement status of any order (synchronous orders are NEW).
+     */
+    @Transactional(readOnly = true)
+    public OrderStatusDTO status(Long orderId) {
+        List<OrderStatusDTO> rows = jdbc.query(
+                "SELECT o.status, r.reason FROM orders o LEFT JOIN order_requests r ON r.order_id = o.id WHERE o.id = ?",
+                (rs, n) -> new OrderStatusDTO(orderId, rs.getString("status"), rs.getString("reason")), orderId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Order not found");
+        }
+        return rows.get(0);
+    }
+
+    /* -------------------------
+       Workers
+       ------------------------- */
+
+    private void work() {
+        List<Accepted> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Accepted first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                slots.release(batch.size());
+                place(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // only if rejecting or re-queueing itself failed: the orders stay PENDING with their
+                // requests and are queued again on the next start
+                log.error("Async order batch of {} failed, orders stay PENDING", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void place(List<Accepted> batch) {
+        try {
+            tx.executeWithoutResult(status -> confirm(batch));
+            return;
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                failed(batch.get(0), ex);
+                return;
+            }
+        }
+
+        // one order (or a transient error) made the batch fail: place the orders one by one
+        for (Accepted accepted : batch) {
+            try {
+                tx.executeWithoutResult(status -> confirm(List.of(accepted)));
+            } catch (RuntimeException ex) {
+                failed(accepted, ex);
+            }
+        }
+    }
+
+    private void failed(Accepted accepted, RuntimeException ex) {
+        if (ex instanceof ConflictException || ex instanceof ResourceNotFoundException
+                || ex instanceof BadRequestException) {
+            reject(accepted, ex.getMessage());
+            return;
+        }
+
+        Accepted retry = accepted.failedAgain();
+        if (retry.failures() >= maxAttempts) {
+            log.error("Async order {} failed {} times, rejecting it", accepted.orderId(), retry.failures(), ex);
+            reject(accepted, "Order could not be placed after " + retry.failures() + " attempts");
+            return;
+        }
+
+        // exponential backoff; the slot is taken when the order goes back on the queue
+        long delay = retryBackoffMs << Math.min(retry.failures() - 1, 10);
+        log.warn("Async order {} failed (attempt {} of {}), retrying in {} ms",
+                accepted.orderId(), retry.failures(), maxAttempts, delay, ex);
+        retries.schedule(() -> requeue(retry), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void requeue(Accepted retry) {
+        if (!running) return;
+        if (slots.tryAcquire()) {
+            queue.add(retry);
+        } else {
+            log.warn("Async queue is full; order {} stays PENDING until the next start", retry.orderId());
+        }
+    }
+
+    private void confirm(List<Accepted> batch) {
+        Map<Long, Accepted> byId = new HashMap<>();
+        batch.forEach(a -> byId.put(a.orderId(), a));
+
+        // orders already placed (delivered twice after a restart) are not returned
+        List<Order> orders = orderRepo.lockByIdInAndStatus(byId.keySet(), Order.STATUS_PENDING);
+        if (orders.isEmpty()) return;
+
+        List<OrderItemCreateDTO> lines = orders.stream()
+                .flatMap(o -> byId.get(o.getId()).request().getItems().stream())
+                .toList();
+        Map<Long, ProductSnapshot> products = orderService.loadProducts(lines);
+
+        // one reservation batch for every order; a shortfall fails the batch
+        stock.reserve(OrderService.reservedQuantities(lines));
+
+        for (Order order : orders) {
+            orderService.addLines(order, byId.get(order.getId()).request().getItems(), products);
+            order.setStatus(Order.STATUS_CONFIRMED);
+        }
+
+        List<Long> ids = orders.stream().map(Order::getId).toList();
+        jdbc.batchUpdate("DELETE FROM order_requests WHERE order_id = ?", ids.stream().map(id -> new Object[]{id}).toList());
+
+        history.recordPlaced(orders);
+        sales.recordCreated(orders);
+        events.created(orders.stream().map(OrderService::toDto).toList());
+        meters.counter("commerceflow.orders.async.placed", "status", Order.STATUS_CONFIRMED).increment(orders.size());
+    }
+
+    private void reject(Accepted accepted, String reason) {
+        tx.executeWithoutResult(status -> {
+            int updated = jdbc.update("UPDATE orders SET status = ?, version = version + 1 WHERE id = ? AND status = ?",
+                    Order.STATUS_REJECTED, accepted.orderId(), Order.STATUS_PENDING);
+            if (updated == 0) return;
+            jdbc.update("UPDATE order_requests SET reason = ? WHERE order_id = ?", reason, accepted.orderId());
+
+            Order order = orderRepo.getReferenceById(accepted.orderId());
+            history.recordPlaced(List.of(order));
+            events.rejected(accepted.orderId(), reason);
+        });
+        meters.counter("commerceflow.orders.async.placed", "status", Order.STATUS_REJECTED).increment();
+    }
+
+    /* -------------------------
+       Lifecycle
+       ------------------------- */
+
+    /**
+     * Queue every PENDING order that has a stored request (the database is the source of
+     * truth, so anything still queued in memory is dropped first), then start the workers.
+     */
+    @Override
+    public void start() {
+        if (!enabled || running) return;
+
+        slots.release(queue.size());
+        queue.clear();
+        List<Accepted> pending = jdbc.query(
+                "SELECT r.order_id, r.payload FROM order_requests r JOIN orders o ON o.id = r.order_id "
+                        + "WHERE o.status = ? ORDER BY r.order_id",
+                (rs, n) -> new Accepted(rs.getLong("order_id"), read(rs.getString("payload"))),
+                Order.STATUS_PENDING);
+        for (Accepted accepted : pending) {
+            if (!slots.tryAcquire()) {
+                log.warn("{} PENDING orders do not fit the async queue; the rest are queued on the next start",
+                        pending.size());
+                break;
+            }
+            queue.add(accepted);
+        }
+        if (!pending.isEmpty()) {
+            log.info("Queued {} PENDING orders for placement", queue.size());
+        }
+
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "order-pipeline-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        retries = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "order-pipeline-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            pool.execute(this::work);
+        }
+    }
+
+    /**
+     * Stop the workers after their current batch; orders still queued or waiting for a retry
+     * stay PENDING.
+     */
+    @Override
+    public void stop() {
+        if (!running) return;
+        running = false;
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(30, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            // after the workers, which may still schedule retries for their last batch
+            retries.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // start after the hot inventory and before the web server (DEFAULT_PHASE - 1024); stop in reverse
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1536;
+    }
+
+    private String write(OrderCreateDTO dto) {
+        try {
+            return json.writeValueAsString(dto);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Order request not serializable", ex);
+        }
+    }
+
+    private OrderCreateDTO read(String payload) {
+        try {
+            return json.readValue(payload, OrderCreateDTO.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored order request not readable", ex);
+        }
+    }
+}
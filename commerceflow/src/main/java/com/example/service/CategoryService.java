@@ -1,5 +1,7 @@
 package com.example.service;
 
+import com.example.config.cache.CacheNames;
+import com.example.config.retry.RetryOnConflict;
 import com.example.dto.CategoryCreateDTO;
 import com.example.dto.CategoryDTO;
 import com.example.dto.CategoryUpdateDTO;
@@ -8,12 +10,18 @@ import com.example.exception.BadRequestException;
 import com.example.exception.ConflictException;
 import com.example.exception.ResourceNotFoundException;
 import com.example.repository.CategoryRepository;
+import com.example.repository.LikePatterns;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 public class CategoryService {
@@ -29,7 +37,8 @@ public class CategoryService {
                 c.getId(),
                 c.getName(),
                 c.getDescription(),
-                c.getCreatedAt()             // maps to DTO createdAt field
+                c.getCreatedAt(),            // maps to DTO createdAt field
+                c.getVersion()
         );
     }
 
@@ -51,24 +60,21 @@ public class CategoryService {
 
     /**
      * GET all without pagination (useful for exports / dropdowns)
+     * Cached per (name, sort); any category write drops the whole list cache.
      */
+    @Cacheable(cacheNames = CacheNames.CATEGORY_LISTS, key = "#name + '|' + #sort")
     public List<CategoryDTO> getAllWithoutPaging(String name, Sort sort) {
         if (name != null && !name.isBlank()) {
-            // Use a paged call to apply sort and filtering then return content
-            Pageable sorted = PageRequest.of(0, Integer.MAX_VALUE, sort);
-            return repo.findByNameContainingIgnoreCase(name, sorted)
-                       .map(this::toDTO)
-                       .getContent();
+            return repo.searchAsDtoByName(LikePatterns.contains(name), sort);
         }
 
-        return repo.findAll(sort).stream()
-                   .map(this::toDTO)
-                   .toList();
+        return repo.findAllAsDto(sort);
     }
 
     /**
      * GET by ID
      */
+    @Cacheable(cacheNames = CacheNames.CATEGORIES, key = "#id")
     public CategoryDTO getById(Long id) {
         Category c = repo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
@@ -78,6 +84,7 @@ public class CategoryService {
     /**
      * CREATE
      */
+    @CacheEvict(cacheNames = CacheNames.CATEGORY_LISTS, allEntries = true)
     public CategoryDTO create(CategoryCreateDTO dto) {
         if (repo.existsByNameIgnoreCase(dto.getName())) {
             throw new BadRequestException("Category name already exists");
@@ -94,10 +101,22 @@ public class CategoryService {
 
     /**
      * UPDATE
+     *
+     * Full replacement: not retried on conflict, a stale payload fails with 409 instead.
      */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.CATEGORY_LISTS, allEntries = true),
+            // cached ProductDTOs embed the category name
+            @CacheEvict(cacheNames = CacheNames.PRODUCTS, allEntries = true)
+    })
     public CategoryDTO update(Long id, CategoryUpdateDTO dto) {
         Category c = repo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+        if (!Objects.equals(dto.getVersion(), c.getVersion())) {
+            throw new ConflictException("Category is at version " + c.getVersion() + ", reload and retry");
+        }
 
         if (!c.getName().equalsIgnoreCase(dto.getName()) &&
                 repo.existsByNameIgnoreCase(dto.getName())) {
@@ -107,7 +126,7 @@ public class CategoryService {
         c.setName(dto.getName());
         c.setDescription(dto.getDescription());
 
-        Category updated = repo.save(c);
+        Category updated = repo.saveAndFlush(c);  // flush so the DTO carries the bumped version
         return toDTO(updated);
     }
 
@@ -117,6 +136,14 @@ public class CategoryService {
      * Attempt delete and flush immediately so any FK constraint is raised now.
      * Convert DB constraint to a user-friendly ConflictException.
      */
+    @RetryOnConflict
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.CATEGORY_LISTS, allEntries = true),
+            // cached ProductDTOs embed the category name
+            @CacheEvict(cacheNames = CacheNames.PRODUCTS, allEntries = true)
+    })
     public void delete(Long id) {
         Category c = repo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
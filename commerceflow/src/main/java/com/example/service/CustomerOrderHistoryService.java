@@ -0,0 +1,121 @@
+package com.example.service;
+
+import com.example.dto.CursorPage;
+import com.example.dto.CustomerOrderSummaryDTO;
+import com.example.entity.Order;
+import com.example.exception.BadRequestException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.repository.CustomerOrderSummaryRepository;
+import com.example.repository.CustomerRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Customer order history served from the customer_order_summaries read model.
+ *
+ * The record* methods are called by the order and item writes and must join their
+ * transaction (MANDATORY), so a summary row never disagrees with a committed order.
+ * They only ever apply the change being made (insert, delta, delete); nothing is
+ * recomputed from the items.
+ */
+@Service
+public class CustomerOrderHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final CustomerOrderSummaryRepository summaries;
+    private final CustomerRepository customerRepo;
+
+    public CustomerOrderHistoryService(CustomerOrderSummaryRepository summaries, CustomerRepository customerRepo) {
+        this.summaries = summaries;
+        this.customerRepo = customerRepo;
+    }
+
+    /**
+     * One page of a customer's orders, newest first: a single range scan of the history index.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerOrderSummaryDTO> getHistory(Long customerId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // fetch one extra row to know whether another page exists
+        List<CustomerOrderSummaryDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = summaries.findHistory(customerId, Limit.of(size + 1));
+            // only an empty first page needs to tell "no orders" from "no such customer"
+            if (rows.isEmpty() && !customerRepo.existsById(customerId)) {
+                throw new ResourceNotFoundException("Customer not found");
+            }
+        } else {
+            // cursor = orderDate | orderId
+            String[] parts = CursorCodec.decode(cursor, 2);
+            Instant afterDate;
+            Long afterId;
+            try {
+                afterDate = Instant.parse(parts[0]);
+                afterId = Long.valueOf(parts[1]);
+            } catch (RuntimeException ex) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            rows = summaries.findHistoryAfter(customerId, afterDate, afterId, Limit.of(size + 1));
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<CustomerOrderSummaryDTO> items = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            CustomerOrderSummaryDTO last = items.get(items.size() - 1);
+            nextCursor = CursorCodec.encode(last.getOrderDate(), last.getOrderId());
+        }
+
+        return new CursorPage<>(List.copyOf(items), items.size(), hasNext, nextCursor);
+    }
+
+    /**
+     * Summary rows for orders persisted in the current transaction; copied from the
+     * orders themselves with one INSERT ... SELECT however many there are.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<Order> orders) {
+        if (orders.isEmpty()) return;
+        summaries.insertFromOrders(orders.stream().map(Order::getId).toList());
+    }
+
+    /**
+     * Async orders leaving PENDING (confirmed with their items, or rejected): the rows
+     * recorded when they were accepted take their status, total and item count.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPlaced(Collection<Order> orders) {
+        if (orders.isEmpty()) return;
+        summaries.refreshFromOrders(orders.stream().map(Order::getId).toList());
+    }
+
+    /**
+     * An item was added (itemDelta 1), changed (0) or removed (-1), moving the order total by totalDelta.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordItemChange(Long orderId, BigDecimal totalDelta, int itemDelta) {
+        summaries.applyDelta(orderId, totalDelta, itemDelta);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Long orderId) {
+        summaries.deleteByOrderId(orderId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCustomerDeleted(Long customerId) {
+        summaries.deleteByCustomerId(customerId);
+    }
+}
@@ -1,18 +1,28 @@
 package com.example.service;
 
+import com.example.config.retry.RetryOnConflict;
 import com.example.dto.CustomerCreateDTO;
 import com.example.dto.CustomerDTO;
 import com.example.dto.CustomerUpdateDTO;
 import com.example.entity.Customer;
+import com.example.entity.Order;
+import com.example.entity.OrderItem;
 import com.example.exception.BadRequestException;
+import com.example.exception.ConflictException;
 import com.example.exception.ResourceNotFoundException;
 import com.example.repository.CustomerRepository;
+import com.example.repository.LikePatterns;
+import com.example.service.analytics.SalesLedger;
+import com.example.service.outbox.OrderEvents;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class CustomerService {
@@ -20,6 +30,18 @@ public class CustomerService {
     @Autowired
     private CustomerRepository repo;
 
+    @Autowired
+    private CustomerOrderHistoryService history;
+
+    @Autowired
+    private SalesLedger sales;
+
+    @Autowired
+    private OrderEvents events;
+
+    @Autowired
+    private StockReservationService stock;
+
     // Convert Entity → DTO
     private CustomerDTO toDTO(Customer c) {
         return new CustomerDTO(
@@ -28,53 +50,43 @@ public class CustomerService {
                 c.getLastName(),
                 c.getEmail(),
                 c.getPhone(),
-                c.getCreatedAt()
+                c.getCreatedAt(),
+                c.getVersion()
         );
     }
 
+    // GET page with total count; name filter runs in the database (case-insensitive, first or last name)
     public Page<CustomerDTO> getAllPaged(String name, int page, int size, Sort sort) {
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Customer> pageData = repo.findAll(pageable);
-
-        // no filter → return normally
         if (name == null || name.isBlank()) {
-            return pageData.map(this::toDTO);
+            return repo.findAllAsDto(pageable);
         }
 
-        // apply manual filter AFTER converting to list
-        List<CustomerDTO> filtered = pageData.stream()
-                .map(this::toDTO)
-                .filter(dto ->
-                        dto.getFirstName().toLowerCase().contains(name.toLowerCase()) ||
-                        (dto.getLastName() != null &&
-                         dto.getLastName().toLowerCase().contains(name.toLowerCase()))
-                )
-                .toList();
-
-        return new PageImpl<>(filtered, pageable, filtered.size());
+        return repo.searchByName(LikePatterns.contains(name), pageable);
     }
 
+    // GET slice without total count (infinite scroll: no COUNT(*) per page)
+    public Slice<CustomerDTO> getSlice(String name, int page, int size, Sort sort) {
+
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        if (name == null || name.isBlank()) {
+            return repo.findSliceAsDto(pageable);
+        }
+
+        return repo.searchSliceByName(LikePatterns.contains(name), pageable);
+    }
 
     // GET all without pagination
     public List<CustomerDTO> getAllWithoutPaging(String name, Sort sort) {
 
-        List<Customer> list = repo.findAll(sort);
-
-        if (name != null && !name.isBlank()) {
-        
-            return list.stream()
-                    .filter(c ->
-                            c.getFirstName().toLowerCase().contains(name.toLowerCase())
-                                    || (c.getLastName() != null &&
-                                    c.getLastName().toLowerCase().contains(name.toLowerCase()))
-                    )
-                    .map(this::toDTO)
-                    .toList();
+        if (name == null || name.isBlank()) {
+            return repo.findAllAsDto(sort);
         }
 
-        return list.stream().map(this::toDTO).toList();
+        return repo.searchByName(LikePatterns.contains(name), sort);
     }
 
     // GET by ID
@@ -107,11 +119,16 @@ public class CustomerService {
         return toDTO(repo.save(c));
     }
 
-    // UPDATE
+    // UPDATE (read + write in one transaction so the version check covers the whole edit).
+    // Full replacement: not retried on conflict, a stale payload fails with 409 instead.
+    @Transactional
     public CustomerDTO update(Long id, CustomerUpdateDTO dto) {
 
         Customer c = repo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
+        if (!Objects.equals(dto.getVersion(), c.getVersion())) {
+            throw new ConflictException("Customer is at version " + c.getVersion() + ", reload and retry");
+        }
 
         String newEmail = dto.getEmail();
 
@@ -131,14 +148,29 @@ public class CustomerService {
         c.setLastName(dto.getLastName());
         c.setPhone(dto.getPhone());
 
-        return toDTO(repo.save(c));
+        return toDTO(repo.saveAndFlush(c));  // flush so the DTO carries the bumped version
     }
 
     // DELETE
+    @RetryOnConflict
+    @Transactional
     public void delete(Long id) {
         Customer c = repo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
 
+        // history and sales rows have no FK to the orders removed by the cascade below
+        history.recordCustomerDeleted(id);
+        sales.recordCustomerDeleted(id);
+        List<Long> orderIds = c.getOrders().stream().map(Order::getId).toList();
+        Map<Long, Integer> reserved = StockReservationService.quantitiesByProduct(
+                c.getOrders().stream().flatMap(o -> o.getItems().stream()).toList(),
+                item -> item.getProduct().getId(), OrderItem::getQuantity);
+
         repo.delete(c);
+        // order rows are deleted (and locked) before their order.deleted events are appended,
+        // and before their stock is released, as in OrderService.deleteOrder
+        repo.flush();
+        orderIds.forEach(events::deleted);
+        stock.release(reserved);
     }
 }
@@ -0,0 +1,169 @@
+package com.example.service;
+
+import com.example.dto.CustomerDTO;
+import com.example.dto.OrderItemDTO;
+import com.example.dto.OrderSummaryDTO;
+import com.example.dto.ProductDTO;
+import com.example.exception.BadRequestException;
+import com.example.repository.CustomerRepository;
+import com.example.repository.OrderItemRepository;
+import com.example.repository.OrderRepository;
+import com.example.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables as NDJSON or CSV with constant memory: rows come from a
+ * forward-only JDBC cursor (server-side fetch size) as DTOs that never enter the
+ * persistence context, and are written straight to the response stream.
+ */
+@Service
+public class ExportService {
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                throw new BadRequestException("format must be ndjson or csv");
+            }
+        }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CustomerRepository customerRepo;
+    private final ProductRepository productRepo;
+    private final OrderRepository orderRepo;
+    private final OrderItemRepository itemRepo;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectWriter jsonWriter;
+
+    public ExportService(CustomerRepository customerRepo,
+                         ProductRepository productRepo,
+                         OrderRepository orderRepo,
+                         OrderItemRepository itemRepo,
+                         PlatformTransactionManager txManager,
+                         ObjectMapper mapper) {
+        this.customerRepo = customerRepo;
+        this.productRepo = productRepo;
+        this.orderRepo = orderRepo;
+        this.itemRepo = itemRepo;
+
+        // The body is written on an async MVC thread, so the cursor needs its own transaction there
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+
+        // one JSON document per line; the buffered stream decides when to flush
+        this.jsonWriter = mapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+    }
+
+    public void exportCustomers(Format format, OutputStream out) {
+        export(customerRepo::streamAllAsDto, format, out,
+                new String[]{"id", "firstName", "lastName", "email", "phone", "createdAt"},
+                (CustomerDTO c) -> new Object[]{c.getId(), c.getFirstName(), c.getLastName(),
+                        c.getEmail(), c.getPhone(), c.getCreatedAt()});
+    }
+
+    public void exportProducts(Format format, OutputStream out) {
+        export(productRepo::streamAllAsDto, format, out,
+                new String[]{"id", "sku", "name", "categoryId", "categoryName", "price", "quantity", "createdAt"},
+                (ProductDTO p) -> new Object[]{p.getId(), p.getSku(), p.getName(), p.getCategoryId(),
+                        p.getCategoryName(), p.getPrice(), p.getQuantity(), p.getCreatedAt()});
+    }
+
+    public void exportOrders(Format format, OutputStream out) {
+        export(orderRepo::streamAllSummaries, format, out,
+                new String[]{"id", "customerId", "orderDate", "status", "total"},
+                (OrderSummaryDTO o) -> new Object[]{o.getId(), o.getCustomerId(), o.getOrderDate(),
+                        o.getStatus(), o.getTotal()});
+    }
+
+    public void exportOrderItems(Format format, OutputStream out) {
+        export(itemRepo::streamAllAsDto, format, out,
+                new String[]{"id", "orderId", "productId", "unitPrice", "quantity", "lineTotal"},
+                (OrderItemDTO i) -> new Object[]{i.getId(), i.getOrderId(), i.getProductId(),
+                        i.getUnitPrice(), i.getQuantity(), i.getLineTotal()});
+    }
+
+    private <T> void export(Supplier<Stream<T>> source, Format format, OutputStream out,
+                            String[] header, Function<T, Object[]> columns) {
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<T> rows = source.get()) {
+                if (format == Format.CSV) {
+                    writeCsv(rows, out, header, columns);
+                } else {
+                    writeNdjson(rows, out);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private <T> void writeNdjson(Stream<T> rows, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        try (JsonGenerator gen = jsonWriter.createGenerator(buffered)) {
+            boolean[] any = {false};
+            rows.forEach(row -> {
+                try {
+                    jsonWriter.writeValue(gen, row);
+                    any[0] = true;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            if (any[0]) {
+                gen.writeRaw('\n');
+            }
+        }
+    }
+
+    private <T> void writeCsv(Stream<T> rows, OutputStream out, String[] header,
+                              Function<T, Object[]> columns) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writeCsvLine(writer, header);
+        rows.forEach(row -> {
+            try {
+                writeCsvLine(writer, columns.apply(row));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writer.flush();
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writer.write(csvValue(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting: only when the value contains a delimiter, quote or line break
+    private static String csvValue(Object value) {
+        if (value == null) return "";
+        String s = value instanceof BigDecimal bd ? bd.toPlainString() : value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.service;
+
+import com.example.exception.BadRequestException;
+import com.example.exception.ConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per Idempotency-Key and replays its response to retries.
+ *
+ * Two levels:
+ * - in memory (Caffeine, TTL-evicted): the first request for a key registers a future;
+ *   concurrent duplicates on this instance wait for it instead of executing, and later
+ *   retries get the response without any SQL;
+ * - idempotency_keys table, for other instances and restarts: the key row is inserted
+ *   before the action runs, in the action's transaction, and completed with the response
+ *   before commit. A concurrent insert of the same key on another instance blocks on the
+ *   unique key until that transaction ends, then replays the stored response.
+ *
+ * A failed request stores nothing, so the client may retry it with the same key. Reusing
+ * a key for a different request body is rejected.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final String FIND_SQL =
+            "SELECT request_hash, response FROM idempotency_keys WHERE idempotency_key = ? AND expires_at > ?";
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at) VALUES (?, ?, ?, ?)";
+
+    public record Outcome<T>(T response, boolean replayed) {
+    }
+
+    private record Pending(String requestHash, CompletableFuture<Object> response) {
+    }
+
+    private record Stored(String requestHash, String response) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectMapper json;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Cache<String, Pending> recent;
+
+    public IdempotencyService(JdbcTemplate jdbc,
+                              PlatformTransactionManager txManager,
+                              ObjectMapper json,
+                              @Value("${commerceflow.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${commerceflow.idempotency.max-entries:100000}") long maxEntries,
+                              @Value("${commerceflow.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.json = json;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+        this.recent = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Run {@code action} unless a request with the same scope and key already ran; in that
+     * case return its response (replayed).
+     *
+     * @throws BadRequestException if the key is malformed or was used for a different request
+     * @throws ConflictException   if the first request is still running elsewhere after the wait timeout
+     */
+    public <T> Outcome<T> execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + key;
+        String hash = hash(request);
+
+        Pending mine = new Pending(hash, new CompletableFuture<>());
+        Pending existing = recent.asMap().putIfAbsent(id, mine);
+        if (existing != null) {
+            checkSameRequest(existing.requestHash(), hash);
+            return new Outcome<>(await(existing, responseType), true);
+        }
+
+        try {
+            Outcome<T> outcome = executeOnce(id, hash, responseType, action);
+            mine.response().complete(outcome.response());
+            return outcome;
+        } catch (RuntimeException ex) {
+            // nothing was stored: let a retry with the same key run again
+            recent.asMap().remove(id, mine);
+            mine.response().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private <T> Outcome<T> executeOnce(String id, String hash, Class<T> responseType, Supplier<T> action) {
+        try {
+            return tx.execute(status -> {
+                Instant now = Instant.now();
+                Stored stored = find(id, now);
+                if (stored != null) {
+                    checkSameRequest(stored.requestHash(), hash);
+                    return new Outcome<>(read(stored.response(), responseType), true);
+                }
+
+                // an expired row for the key would block the claim; a live one (committed meanwhile) must not be removed
+                jdbc.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?", id, Timestamp.from(now));
+                jdbc.update(CLAIM_SQL, id, hash, Timestamp.from(now), Timestamp.from(now.plus(ttl)));
+
+                T response = action.get();
+                jdbc.update("UPDATE idempotency_keys SET response = ? WHERE idempotency_key = ?", write(response), id);
+                return new Outcome<>(response, false);
+            });
+        } catch (DuplicateKeyException ex) {
+            // another instance claimed the key and has committed by now (or is still holding it)
+            Stored stored = find(id, Instant.now());
+            if (stored == null || stored.response() == null) {
+                throw new ConflictException("A request with this " + HEADER + " is still being processed");
+            }
+            checkSameRequest(stored.requestHash(), hash);
+            return new Outcome<>(read(stored.response(), responseType), true);
+        }
+    }
+
+    private Stored find(String id, Instant now) {
+        List<Stored> rows = jdbc.query(FIND_SQL,
+                (rs, n) -> new Stored(rs.getString("request_hash"), rs.getString("response")),
+                id, Timestamp.from(now));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private <T> T await(Pending pending, Class<T> responseType) {
+        try {
+            return responseType.cast(pending.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (ExecutionException ex) {
+            // the coalesced request failed: report the same failure
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ConflictException("A request with this " + HEADER + " is still being processed");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this " + HEADER + " is still being processed");
+        }
+    }
+
+    private static void checkSameRequest(String expectedHash, String actualHash) {
+        if (!expectedHash.equals(actualHash)) {
+            throw new BadRequestException(HEADER + " was already used for a different request");
+        }
+    }
+
+    /**
+     * Drop expired keys; the in-memory entries expire on their own.
+     */
+    @Scheduled(fixedDelayString = "${commerceflow.idempotency.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        jdbc.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", Timestamp.from(Instant.now()));
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(json.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Request not serializable", ex);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return json.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Response not serializable", ex);
+        }
+    }
+
+    private <T> T read(String response, Class<T> responseType) {
+        try {
+            return json.readValue(response, responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored response not readable", ex);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.service;
+
+import com.example.dto.BulkOrderResponseDTO;
+import com.example.dto.BulkOrderResultDTO;
+import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderItemCreateDTO;
+import com.example.dto.ProductSnapshot;
+import com.example.entity.Customer;
+import com.example.entity.Order;
+import com.example.exception.BadRequestException;
+import com.example.repository.CustomerRepository;
+import com.example.repository.OrderRepository;
+import com.example.service.analytics.SalesLedger;
+import com.example.service.outbox.OrderEvents;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk order ingestion. Orders are read from the request stream one chunk at a time;
+ * each chunk resolves its customers and products with one IN query each and is
+ * persisted in its own transaction with JDBC batching (stock reserved for the whole
+ * chunk in one batch). A bad order is reported in its result and never aborts the
+ * rest of the batch: a chunk that fails in the database is split in halves until the
+ * failing orders are isolated.
+ */
+@Service
+public class OrderBulkService {
+
+    private static final String CREATED = "CREATED";
+    private static final String FAILED = "FAILED";
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepo;
+    private final CustomerRepository customerRepo;
+    private final ProductSnapshotCache productSnapshots;
+    private final StockReservationService stock;
+    private final CustomerOrderHistoryService history;
+    private final SalesLedger sales;
+    private final OrderEvents events;
+    private final TransactionTemplate tx;
+    private final Validator validator;
+    private final ObjectReader orderReader;
+    private final int chunkSize;
+
+    public OrderBulkService(OrderService orderService,
+                            OrderRepository orderRepo,
+                            CustomerRepository customerRepo,
+                            ProductSnapshotCache productSnapshots,
+                            StockReservationService stock,
+                            CustomerOrderHistoryService history,
+                            SalesLedger sales,
+                            OrderEvents events,
+                            PlatformTransactionManager txManager,
+                            Validator validator,
+                            ObjectMapper mapper,
+                            @Value("${commerceflow.orders.bulk.chunk-size:500}") int chunkSize) {
+        this.orderService = orderService;
+        this.orderRepo = orderRepo;
+        this.customerRepo = customerRepo;
+        this.productSnapshots = productSnapshots;
+        this.stock = stock;
+        this.history = history;
+        this.sales = sales;
+        this.events = events;
+        this.tx = new TransactionTemplate(txManager);
+        this.validator = validator;
+        this.orderReader = mapper.readerFor(OrderCreateDTO.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Read a JSON array or NDJSON stream of orders. The body is consumed chunk by chunk,
+     * so only one chunk of payload is held in memory and persistence starts before the
+     * client has finished uploading.
+     */
+    public BulkOrderResponseDTO ingest(InputStream body) {
+        try (MappingIterator<OrderCreateDTO> orders = orderReader.readValues(body)) {
+            return ingest(orders);
+        } catch (IOException ex) {
+            throw new BadRequestException("Could not read request body: " + ex.getMessage());
+        }
+    }
+
+    private BulkOrderResponseDTO ingest(MappingIterator<OrderCreateDTO> orders) {
+        List<BulkOrderResultDTO> results = new ArrayList<>();
+        Map<Integer, OrderCreateDTO> chunk = new LinkedHashMap<>();
+        int index = 0;
+
+        while (true) {
+            OrderCreateDTO dto;
+            try {
+                if (!orders.hasNextValue()) break;
+                dto = orders.nextValue();
+            } catch (JsonMappingException ex) {
+                // element had the wrong shape; the iterator resyncs to the next element
+                results.add(failed(index++, "Invalid order: " + ex.getOriginalMessage()));
+                continue;
+            } catch (JsonProcessingException ex) {
+                // malformed JSON cannot be resynced: stop reading, keep what was already processed
+                results.add(failed(index, "Malformed JSON: " + ex.getOriginalMessage()));
+                break;
+            } catch (IOException ex) {
+                throw new BadRequestException("Could not read request body: " + ex.getMessage());
+            }
+
+            chunk.put(index++, dto);
+            if (chunk.size() == chunkSize) {
+                results.addAll(processChunk(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(processChunk(chunk));
+        }
+
+        results.sort(Comparator.comparingInt(BulkOrderResultDTO::getIndex));
+        int created = (int) results.stream().filter(r -> CREATED.equals(r.getStatus())).count();
+        return new BulkOrderResponseDTO(results.size(), created, results.size() - created, results);
+    }
+
+    private List<BulkOrderResultDTO> processChunk(Map<Integer, OrderCreateDTO> chunk) {
+        List<BulkOrderResultDTO> results = new ArrayList<>();
+
+        // 1. payload validation, no database access
+        Map<Integer, OrderCreateDTO> valid = new LinkedHashMap<>();
+        chunk.forEach((i, dto) -> {
+            String error = validate(dto);
+            if (error != null) {
+                results.add(failed(i, error));
+            } else {
+                valid.put(i, dto);
+            }
+        });
+        if (valid.isEmpty()) return results;
+
+        // 2. the whole chunk in one transaction
+        results.addAll(persistBisecting(valid));
+        return results;
+    }
+
+    /**
+     * Persist the orders in one transaction; if that fails, persist each half the same way,
+     * so k failing orders in a chunk of n cost about 2k log2(n) transactions instead of n.
+     * The halves run in payload order, so earlier orders still win contested stock.
+     */
+    private List<BulkOrderResultDTO> persistBisecting(Map<Integer, OrderCreateDTO> orders) {
+        try {
+            return tx.execute(status -> persistChunk(orders));
+        } catch (RuntimeException ex) {
+            if (orders.size() == 1) {
+                return List.of(failed(orders.keySet().iterator().next(), ex.getMessage()));
+            }
+            // rolled back: isolate the failure in the halves below
+        }
+
+        Map<Integer, OrderCreateDTO> firstHalf = new LinkedHashMap<>();
+        Map<Integer, OrderCreateDTO> secondHalf = new LinkedHashMap<>();
+        orders.forEach((i, dto) -> (firstHalf.size() < orders.size() / 2 ? firstHalf : secondHalf).put(i, dto));
+
+        List<BulkOrderResultDTO> results = new ArrayList<>(persistBisecting(firstHalf));
+        results.addAll(persistBisecting(secondHalf));
+        return results;
+    }
+
+    private List<BulkOrderResultDTO> persistChunk(Map<Integer, OrderCreateDTO> valid) {
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (OrderCreateDTO dto : valid.values()) {
+            customerIds.add(dto.getCustomerId());
+            dto.getItems().forEach(line -> productIds.add(line.getProductId()));
+        }
+
+        // set-based prefetch: one query for the chunk's customers, cached prices + one query for product misses
+        Map<Long, Customer> customers = customerRepo.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        Map<Long, ProductSnapshot> products = productSnapshots.getAll(productIds);
+
+        List<BulkOrderResultDTO> results = new ArrayList<>();
+        Map<Integer, Order> toSave = new LinkedHashMap<>();
+
+        valid.forEach((i, dto) -> {
+            Customer customer = customers.get(dto.getCustomerId());
+            if (customer == null) {
+                results.add(failed(i, "Customer not found"));
+                return;
+            }
+            List<Long> missing = OrderService.missingProductIds(dto.getItems(), products);
+            if (!missing.isEmpty()) {
+                results.add(failed(i, "Products not found: " + missing));
+                return;
+            }
+            toSave.put(i, orderService.buildOrder(customer, dto.getItems(), products));
+        });
+
+        // one reservation batch for the whole chunk, so the chunk locks products in id order too;
+        // a shortfall fails the chunk and bisecting it reports the order(s) affected
+        List<OrderItemCreateDTO> lines = toSave.keySet().stream()
+                .flatMap(i -> valid.get(i).getItems().stream())
+                .toList();
+        stock.reserve(OrderService.reservedQuantities(lines));
+
+        // inserts are flushed in JDBC batches at commit
+        orderRepo.saveAll(toSave.values());
+        history.recordCreated(toSave.values());
+        sales.recordCreated(toSave.values());
+        events.created(toSave.values().stream().map(OrderService::toDto).toList());
+        toSave.forEach((i, order) -> results.add(new BulkOrderResultDTO(i, CREATED, order.getId(), null)));
+        return results;
+    }
+
+    private String validate(OrderCreateDTO dto) {
+        if (dto == null) return "Order must not be null";
+
+        Set<ConstraintViolation<OrderCreateDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<OrderCreateDTO> v = violations.iterator().next();
+            return v.getPropertyPath() + ": " + v.getMessage();
+        }
+
+        for (OrderItemCreateDTO line : dto.getItems()) {
+            if (line == null) return "items: must not contain null";
+        }
+        try {
+            OrderService.validateLines(dto.getItems());
+        } catch (BadRequestException ex) {
+            return ex.getMessage();
+        }
+        return null;
+    }
+
+    private static BulkOrderResultDTO failed(int index, String error) {
+        return new BulkOrderResultDTO(index, FAILED, null, error);
+    }
+}
@@ -1,21 +1,26 @@
 package com.example.service;
 
+import com.example.config.retry.RetryOnConflict;
 import com.example.dto.OrderItemCreateDTO;
 import com.example.dto.OrderItemDTO;
 import com.example.dto.OrderItemUpdateDTO;
+import com.example.dto.ProductSnapshot;
 import com.example.entity.Order;
 import com.example.entity.OrderItem;
-import com.example.entity.Product;
 import com.example.exception.BadRequestException;
 import com.example.exception.ResourceNotFoundException;
 import com.example.repository.OrderItemRepository;
 import com.example.repository.OrderRepository;
 import com.example.repository.ProductRepository;
+import com.example.service.analytics.SalesLedger;
+import com.example.service.outbox.OrderEvents;
+import com.example.service.outbox.OrderEvents.ItemChange;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,17 +29,32 @@ public class OrderItemService {
     private final OrderItemRepository itemRepo;
     private final OrderRepository orderRepo;
     private final ProductRepository productRepo;
+    private final ProductSnapshotCache productSnapshots;
+    private final StockReservationService stock;
+    private final CustomerOrderHistoryService history;
+    private final SalesLedger sales;
+    private final OrderEvents events;
 
     public OrderItemService(OrderItemRepository itemRepo,
                             OrderRepository orderRepo,
-                            ProductRepository productRepo) {
+                            ProductRepository productRepo,
+                            ProductSnapshotCache productSnapshots,
+                            StockReservationService stock,
+                            CustomerOrderHistoryService history,
+                            SalesLedger sales,
+                            OrderEvents events) {
         this.itemRepo = itemRepo;
         this.orderRepo = orderRepo;
         this.productRepo = productRepo;
+        this.productSnapshots = productSnapshots;
+        this.stock = stock;
+        this.history = history;
+        this.sales = sales;
+        this.events = events;
     }
 
     // Convert entity -> DTO
-    private OrderItemDTO toDto(OrderItem it) {
+    static OrderItemDTO toDto(OrderItem it) {
         return new OrderItemDTO(
                 it.getId(),
                 it.getOrder() != null ? it.getOrder().getId() : null,
@@ -47,43 +67,48 @@ public class OrderItemService {
 
     /**
      * Add an item to an existing order.
-     * Validates quantity, product and updates order.total atomically (transaction).
+     * Validates quantity and product; order.total is adjusted with one atomic UPDATE
+     * in the same transaction as the item insert.
      */
+    @RetryOnConflict
     @Transactional
     public OrderItemDTO addItem(Long orderId, OrderItemCreateDTO dto) {
         if (dto.getQuantity() == null || dto.getQuantity() <= 0) {
             throw new BadRequestException("Quantity must be greater than 0");
         }
 
-        Order order = orderRepo.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        Product product = productRepo.findById(dto.getProductId())
+        // cached price; the product itself is attached by reference (no SELECT)
+        ProductSnapshot product = productSnapshots.get(dto.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
-        OrderItem item = new OrderItem();
-        item.setOrder(order);
-        item.setProduct(product);
-        item.setQuantity(dto.getQuantity());
-
-        BigDecimal unitPrice = product.getPrice();
+        BigDecimal unitPrice = product.price();
         if (unitPrice == null) unitPrice = BigDecimal.ZERO;
-        item.setUnitPrice(unitPrice);
-
         BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(dto.getQuantity()));
-        item.setLineTotal(lineTotal);
 
-        // Persist the item
-        OrderItem saved = itemRepo.save(item);
+        // doubles as the existence check; the order row stays locked until commit (before products)
+        if (orderRepo.addToTotal(orderId, lineTotal) == 0) {
+            throw new ResourceNotFoundException("Order not found");
+        }
+        history.recordItemChange(orderId, lineTotal, 1);
+        sales.recordLineChange(orderId, product.id(), product.categoryId(), dto.getQuantity(), lineTotal);
 
-        // Update order total and persist order
-        BigDecimal currentTotal = order.getTotal() == null ? BigDecimal.ZERO : order.getTotal();
-        order.setTotal(currentTotal.add(lineTotal));
-        orderRepo.save(order);
+        stock.reserve(Map.of(product.id(), dto.getQuantity()));
 
-        return toDto(saved);
+        OrderItem item = new OrderItem();
+        item.setOrder(orderRepo.getReferenceById(orderId));
+        item.setProduct(productRepo.getReferenceById(product.id()));
+        item.setCategoryId(product.categoryId());
+        item.setQuantity(dto.getQuantity());
+        item.setUnitPrice(unitPrice);
+        item.setLineTotal(lineTotal);
+
+        OrderItemDTO added = toDto(itemRepo.save(item));
+        events.itemChanged(new ItemChange(ItemChange.ADDED, orderId, added.getId(), product.id(),
+                added.getQuantity(), added.getLineTotal()));
+        return added;
     }
 
+    @Transactional(readOnly = true)
     public OrderItemDTO getItem(Long itemId) {
         OrderItem it = itemRepo.findById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order item not found"));
@@ -93,75 +118,91 @@ public class OrderItemService {
     /**
      * List items for the given order.
      */
+    @Transactional(readOnly = true)
     public List<OrderItemDTO> getItemsByOrder(Long orderId) {
         Order order = orderRepo.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
         return order.getItems()
                 .stream()
-                .map(this::toDto)
+                .map(OrderItemService::toDto)
                 .collect(Collectors.toList());
     }
 
     /**
      * Update quantity of an item and adjust order total.
+     * The item row is locked while the delta is computed; the order total and stock
+     * only ever receive the difference. Rows are locked item -> order -> products, the
+     * same order as every other item write, so concurrent edits cannot deadlock.
      */
+    @RetryOnConflict
     @Transactional
     public OrderItemDTO updateItem(Long itemId, OrderItemUpdateDTO dto) {
         if (dto.getQuantity() == null || dto.getQuantity() <= 0) {
             throw new BadRequestException("Quantity must be greater than 0");
         }
 
-        OrderItem item = itemRepo.findById(itemId)
+        OrderItem item = itemRepo.findForUpdateById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order item not found"));
 
         Order order = item.getOrder();
         if (order == null) throw new ResourceNotFoundException("Parent order not found");
 
+        int delta = dto.getQuantity() - (item.getQuantity() == null ? 0 : item.getQuantity());
         BigDecimal oldLine = item.getLineTotal() == null ? BigDecimal.ZERO : item.getLineTotal();
 
-        // Subtract old line total
-        BigDecimal orderTotal = order.getTotal() == null ? BigDecimal.ZERO : order.getTotal();
-        order.setTotal(orderTotal.subtract(oldLine));
-
         // Update item
         item.setQuantity(dto.getQuantity());
         BigDecimal newLine = (item.getUnitPrice() == null ? BigDecimal.ZERO : item.getUnitPrice())
                 .multiply(BigDecimal.valueOf(dto.getQuantity()));
         item.setLineTotal(newLine);
 
-        OrderItem saved = itemRepo.save(item);
+        // Apply the difference to the order total (order id read from the proxy, no SELECT)
+        orderRepo.addToTotal(order.getId(), newLine.subtract(oldLine));
+        history.recordItemChange(order.getId(), newLine.subtract(oldLine), 0);
+
+        // stock last, keeping the lock order item -> order -> products
+        Long productId = item.getProduct().getId();
+        sales.recordLineChange(order.getId(), productId, item.getCategoryId(), delta, newLine.subtract(oldLine));
+        if (delta > 0) {
+            stock.reserve(Map.of(productId, delta));
+        } else if (delta < 0) {
+            stock.release(Map.of(productId, -delta));
+        }
 
-        // Add new line total and persist order
-        order.setTotal(order.getTotal().add(newLine));
-        orderRepo.save(order);
+        events.itemChanged(new ItemChange(ItemChange.UPDATED, order.getId(), item.getId(), productId,
+                item.getQuantity(), item.getLineTotal()));
 
-        return toDto(saved);
+        return toDto(item);
     }
 
     /**
-     * Delete item and subtract its line total from order.
+     * Delete item, return its quantity to stock and subtract its line total from order.
      */
+    @RetryOnConflict
     @Transactional
     public void deleteItem(Long itemId) {
-        OrderItem item = itemRepo.findById(itemId)
+        OrderItem item = itemRepo.findForUpdateById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order item not found"));
 
         Order order = item.getOrder();
-        if (order == null) {
-            // safe fallback: delete item only
-            itemRepo.delete(item);
-            return;
+        if (order != null) {
+            BigDecimal line = item.getLineTotal() == null ? BigDecimal.ZERO : item.getLineTotal();
+            orderRepo.addToTotal(order.getId(), line.negate());
+            history.recordItemChange(order.getId(), line.negate(), -1);
+            if (item.getProduct() != null && item.getQuantity() != null) {
+                sales.recordLineChange(order.getId(), item.getProduct().getId(), item.getCategoryId(),
+                        -item.getQuantity(), line.negate());
+            }
+            events.itemChanged(new ItemChange(ItemChange.REMOVED, order.getId(), item.getId(),
+                    item.getProduct() != null ? item.getProduct().getId() : null, 0, BigDecimal.ZERO));
         }
 
-        BigDecimal line = item.getLineTotal() == null ? BigDecimal.ZERO : item.getLineTotal();
+        // stock after the order row, keeping the lock order item -> order -> products
+        if (item.getProduct() != null && item.getQuantity() != null) {
+            stock.release(Map.of(item.getProduct().getId(), item.getQuantity()));
+        }
 
-        // Delete item
         itemRepo.delete(item);
-
-        // Update order total
-        BigDecimal orderTotal = order.getTotal() == null ? BigDecimal.ZERO : order.getTotal();
-        order.setTotal(orderTotal.subtract(line));
-        orderRepo.save(order);
     }
 }
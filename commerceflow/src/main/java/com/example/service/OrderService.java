@@ -1,71 +1,150 @@
 package com.example.service;
 
+import com.example.config.retry.RetryOnConflict;
+import com.example.dto.CursorPage;
 import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderDTO;
+import com.example.dto.OrderFilter;
 import com.example.dto.OrderItemCreateDTO;
+import com.example.dto.OrderItemDTO;
+import com.example.dto.OrderSummaryDTO;
+import com.example.dto.ProductSnapshot;
 import com.example.entity.Customer;
 import com.example.entity.Order;
 import com.example.entity.OrderItem;
-import com.example.entity.Product;
 import com.example.exception.BadRequestException;
 import com.example.exception.ResourceNotFoundException;
+import com.example.repository.OrderItemRepository;
+import com.example.repository.OrderKeyset;
 import com.example.repository.OrderRepository;
 import com.example.repository.CustomerRepository;
 import com.example.repository.ProductRepository;
+import com.example.service.analytics.SalesLedger;
+import com.example.service.outbox.OrderEvents;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final OrderRepository orderRepo;
+    private final OrderItemRepository itemRepo;
     private final CustomerRepository customerRepo;
     private final ProductRepository productRepo;
+    private final ProductSnapshotCache productSnapshots;
+    private final StockReservationService stock;
+    private final CustomerOrderHistoryService history;
+    private final SalesLedger sales;
+    private final OrderEvents events;
 
     public OrderService(OrderRepository orderRepo,
+                        OrderItemRepository itemRepo,
                         CustomerRepository customerRepo,
-                        ProductRepository productRepo) {
+                        ProductRepository productRepo,
+                        ProductSnapshotCache productSnapshots,
+                        StockReservationService stock,
+                        CustomerOrderHistoryService history,
+                        SalesLedger sales,
+                        OrderEvents events) {
         this.orderRepo = orderRepo;
+        this.itemRepo = itemRepo;
         this.customerRepo = customerRepo;
         this.productRepo = productRepo;
+        this.productSnapshots = productSnapshots;
+        this.stock = stock;
+        this.history = history;
+        this.sales = sales;
+        this.events = events;
     }
 
     /**
      * Create an order with items. All monetary values use BigDecimal.
      */
     @Transactional
-    public Order createOrder(OrderCreateDTO dto) {
+    public OrderDTO createOrder(OrderCreateDTO dto) {
 
         Customer customer = customerRepo.findById(dto.getCustomerId())
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
 
-        Order order = new Order();
-        order.setCustomer(customer);
+        // Cheap checks first so a bad payload never reaches the database
+        validateLines(dto.getItems());
 
-        // Use BigDecimal for money calculations
-        BigDecimal orderTotal = BigDecimal.ZERO;
+        // Cached prices; misses resolved with one IN query instead of one findById per line
+        Map<Long, ProductSnapshot> products = loadProducts(dto.getItems());
 
-        for (OrderItemCreateDTO i : dto.getItems()) {
+        // All lines reserved in one batch of conditional decrements; a shortfall rolls everything back
+        stock.reserve(reservedQuantities(dto.getItems()));
+
+        // cascade should persist items; save order
+        Order order = orderRepo.save(buildOrder(customer, dto.getItems(), products));
+        history.recordCreated(List.of(order));
+        sales.recordCreated(List.of(order));
+
+        OrderDTO created = toDto(order);
+        events.created(List.of(created));
+        return created;
+    }
 
+    /**
+     * Reject lines with a missing product id or a non-positive quantity.
+     */
+    static void validateLines(List<OrderItemCreateDTO> lines) {
+        for (OrderItemCreateDTO i : lines) {
+            if (i.getProductId() == null) {
+                throw new BadRequestException("productId is required");
+            }
             if (i.getQuantity() == null || i.getQuantity() <= 0) {
                 throw new BadRequestException("Quantity must be greater than 0");
             }
+        }
+    }
+
+    /**
+     * Build an unsaved order with priced items. Every product referenced by the lines
+     * must already be present in the map. Products are attached by reference (no SELECT).
+     * Shared with the bulk ingestion path.
+     */
+    Order buildOrder(Customer customer, List<OrderItemCreateDTO> lines, Map<Long, ProductSnapshot> products) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        addLines(order, lines, products);
+        return order;
+    }
 
-            Product product = productRepo.findById(i.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+    /**
+     * Attach priced items for the lines to the order and set its total. Same contract as
+     * {@link #buildOrder}; also used to fill in orders accepted by the async pipeline.
+     */
+    void addLines(Order order, List<OrderItemCreateDTO> lines, Map<Long, ProductSnapshot> products) {
+        // Use BigDecimal for money calculations
+        BigDecimal orderTotal = BigDecimal.ZERO;
+
+        for (OrderItemCreateDTO i : lines) {
+
+            ProductSnapshot product = products.get(i.getProductId());
 
             // create and populate item
             OrderItem item = new OrderItem();
             item.setOrder(order);
-            item.setProduct(product);
+            item.setProduct(productRepo.getReferenceById(product.id()));
+            item.setCategoryId(product.categoryId());
             item.setQuantity(i.getQuantity());
 
-            // product.getPrice() is BigDecimal (entity must use BigDecimal)
-            item.setUnitPrice(product.getPrice());
+            // price is BigDecimal (entity must use BigDecimal)
+            item.setUnitPrice(product.price());
 
             // lineTotal = price * quantity
-            BigDecimal lineTotal = product.getPrice().multiply(BigDecimal.valueOf(i.getQuantity()));
+            BigDecimal lineTotal = product.price().multiply(BigDecimal.valueOf(i.getQuantity()));
             item.setLineTotal(lineTotal);
 
             // attach
@@ -76,20 +155,166 @@ public class OrderService {
         }
 
         order.setTotal(orderTotal);
+    }
 
-        // cascade should persist items; save order
-        return orderRepo.save(order);
+    /**
+     * Resolve all products referenced by the given lines: cached snapshots first, then
+     * a single set-based query for the misses. Duplicate product ids are collapsed before
+     * querying. If any id does not exist, fails once with the complete list of missing ids.
+     */
+    Map<Long, ProductSnapshot> loadProducts(List<OrderItemCreateDTO> lines) {
+        Set<Long> ids = lines.stream()
+                .map(OrderItemCreateDTO::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, ProductSnapshot> byId = productSnapshots.getAll(ids);
+
+        List<Long> missing = missingProductIds(lines, byId);
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Products not found: " + missing);
+        }
+
+        return byId;
+    }
+
+    /**
+     * Stock to reserve for the given lines, summed per product.
+     */
+    static Map<Long, Integer> reservedQuantities(List<OrderItemCreateDTO> lines) {
+        return StockReservationService.quantitiesByProduct(lines,
+                OrderItemCreateDTO::getProductId, OrderItemCreateDTO::getQuantity);
     }
 
-    public Order getOrder(Long id) {
-        return orderRepo.findById(id)
+    /**
+     * Distinct product ids referenced by the lines that are absent from the given map, in line order.
+     */
+    static List<Long> missingProductIds(List<OrderItemCreateDTO> lines, Map<Long, ?> products) {
+        return lines.stream()
+                .map(OrderItemCreateDTO::getProductId)
+                .filter(id -> !products.containsKey(id))
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Load order, customer and items with a single statement and map inside the
+     * transaction, so the read never falls back to lazy loading.
+     */
+    @Transactional(readOnly = true)
+    public OrderDTO getOrder(Long id) {
+        Order order = orderRepo.findWithCustomerAndItemsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        return toDto(order);
+    }
+
+    /**
+     * Order headers matching the filter, sorted by orderDate (id breaks ties), one keyset page
+     * at a time. Items are left out unless expandItems is set; then the whole page's items come
+     * from one IN query, so a page costs two statements however many orders it holds.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummaryDTO> searchOrders(OrderFilter filter, String sortDir, String cursor,
+                                                    int size, boolean expandItems) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!"asc".equalsIgnoreCase(sortDir) && !"desc".equalsIgnoreCase(sortDir)) {
+            throw new BadRequestException("sortDir must be asc or desc");
+        }
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getFrom().isBefore(filter.getTo())) {
+            throw new BadRequestException("from must be before to");
+        }
+
+        boolean descending = "desc".equalsIgnoreCase(sortDir);
+
+        Instant afterOrderDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            // cursor = direction | orderDate | id
+            String[] parts = CursorCodec.decode(cursor, 3);
+            if (!parts[0].equals(descending ? "desc" : "asc")) {
+                throw new BadRequestException("Cursor does not match sortDir");
+            }
+            try {
+                afterOrderDate = Instant.parse(parts[1]);
+                afterId = Long.valueOf(parts[2]);
+            } catch (RuntimeException ex) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        // fetch one extra row to know whether another page exists
+        List<OrderSummaryDTO> rows = orderRepo.searchOrders(
+                filter, new OrderKeyset(descending, afterOrderDate, afterId), size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<OrderSummaryDTO> orders = hasNext ? rows.subList(0, size) : rows;
+
+        if (expandItems && !orders.isEmpty()) {
+            Map<Long, List<OrderItemDTO>> items = itemRepo.findDtosByOrderIdIn(
+                            orders.stream().map(OrderSummaryDTO::getId).toList()).stream()
+                    .collect(Collectors.groupingBy(OrderItemDTO::getOrderId));
+            orders.forEach(o -> o.setItems(items.getOrDefault(o.getId(), List.of())));
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            OrderSummaryDTO last = orders.get(orders.size() - 1);
+            nextCursor = CursorCodec.encode(descending ? "desc" : "asc", last.getOrderDate(), last.getId());
+        }
+
+        return new CursorPage<>(List.copyOf(orders), orders.size(), hasNext, nextCursor);
     }
 
+    @RetryOnConflict
     @Transactional
     public void deleteOrder(Long id) {
         Order order = orderRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+
+        Map<Long, Integer> reserved = StockReservationService.quantitiesByProduct(order.getItems(),
+                item -> item.getProduct().getId(), OrderItem::getQuantity);
+
+        sales.recordDeleted(id);
+
+        // delete now (items, then order) and release stock afterwards, so rows are locked
+        // in the same item -> order -> products order as the item writes
         orderRepo.delete(order);
+        orderRepo.flush();
+        history.recordDeleted(id);
+        events.deleted(id);
+        stock.release(reserved);
+    }
+
+    /* -------------------------
+       Mapping helpers
+       ------------------------- */
+
+    static OrderDTO toDto(Order order) {
+        List<OrderItemDTO> items = order.getItems().stream()
+                .map(OrderService::toItemDto)
+                .collect(Collectors.toList());
+
+        return OrderDTO.builder()
+                .id(order.getId())
+                .customerId(order.getCustomer() != null ? order.getCustomer().getId() : null)
+                .customerFirstName(order.getCustomer() != null ? order.getCustomer().getFirstName() : null)
+                .orderDate(order.getOrderDate())
+                .status(order.getStatus())
+                .total(order.getTotal())
+                .items(items)
+                .build();
+    }
+
+    // Only ids are read from the order / product references, so proxies are never initialized
+    private static OrderItemDTO toItemDto(OrderItem item) {
+        return new OrderItemDTO(
+                item.getId(),
+                item.getOrder() != null ? item.getOrder().getId() : null,
+                item.getProduct() != null ? item.getProduct().getId() : null,
+                item.getUnitPrice(),
+                item.getQuantity(),
+                item.getLineTotal()
+        );
     }
 }
@@ -0,0 +1,259 @@
+package com.example.service;
+
+import com.example.config.cache.CacheNames;
+import com.example.dto.BulkRowErrorDTO;
+import com.example.dto.ProductCreateDTO;
+import com.example.dto.ProductUpsertResultDTO;
+import com.example.entity.Category;
+import com.example.exception.BadRequestException;
+import com.example.repository.CategoryRepository;
+import com.example.repository.ProductRepository;
+import com.example.service.inventory.HotInventory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog sync: bulk upsert keyed on the unique SKU. Each batch resolves its categories
+ * and current content hashes with one query each, skips rows whose hash is unchanged and
+ * writes the rest with a batched Postgres INSERT ... ON CONFLICT (sku) DO UPDATE.
+ * Changed rows of SKUs held by the {@link HotInventory} are reported as errors and left
+ * alone, so the next sync after the SKU is released applies them.
+ */
+@Service
+public class ProductBulkService {
+
+    // The WHERE clause keeps the statement a no-op if a concurrent sync already wrote the same content
+    private static final String UPSERT_SQL =
+            "INSERT INTO products (sku, name, category_id, price, quantity, content_hash, created_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, 0) " +
+            "ON CONFLICT (sku) DO UPDATE SET " +
+            "name = EXCLUDED.name, category_id = EXCLUDED.category_id, price = EXCLUDED.price, " +
+            "quantity = EXCLUDED.quantity, content_hash = EXCLUDED.content_hash, version = products.version + 1 " +
+            "WHERE products.content_hash IS DISTINCT FROM EXCLUDED.content_hash";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final ObjectReader productReader;
+    private final Optional<HotInventory> hotInventory;
+    private final int batchSize;
+
+    public ProductBulkService(ProductRepository productRepository,
+                              CategoryRepository categoryRepository,
+                              JdbcTemplate jdbc,
+                              PlatformTransactionManager txManager,
+                              Validator validator,
+                              ObjectMapper mapper,
+                              CacheManager cacheManager,
+                              Optional<HotInventory> hotInventory,
+                              @Value("${commerceflow.products.bulk.batch-size:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.validator = validator;
+        this.cacheManager = cacheManager;
+        this.productReader = mapper.readerFor(ProductCreateDTO.class);
+        this.hotInventory = hotInventory;
+        this.batchSize = batchSize;
+    }
+
+    record Row(int index, String sku, String name, Long categoryId,
+               BigDecimal price, Integer quantity, String hash) {
+    }
+
+    // What one batch writes, and the counts to report once the write succeeded
+    record BatchPlan(List<Row> writes, int inserted, int updated, int unchanged, List<BulkRowErrorDTO> errors) {
+    }
+
+    private static final class Counts {
+        int received, inserted, updated, unchanged;
+        final List<BulkRowErrorDTO> errors = new ArrayList<>();
+    }
+
+    /**
+     * Read a JSON array or NDJSON stream of products and upsert them batch by batch.
+     */
+    public ProductUpsertResultDTO upsert(InputStream body) {
+        Counts counts = new Counts();
+        Map<Integer, ProductCreateDTO> batch = new LinkedHashMap<>();
+
+        try (MappingIterator<ProductCreateDTO> products = productReader.readValues(body)) {
+            int index = 0;
+            while (true) {
+                ProductCreateDTO dto;
+                try {
+                    if (!products.hasNextValue()) break;
+                    dto = products.nextValue();
+                } catch (JsonMappingException ex) {
+                    counts.errors.add(new BulkRowErrorDTO(index++, null, "Invalid product: " + ex.getOriginalMessage()));
+                    continue;
+                } catch (JsonProcessingException ex) {
+                    counts.errors.add(new BulkRowErrorDTO(index, null, "Malformed JSON: " + ex.getOriginalMessage()));
+                    break;
+                }
+
+                batch.put(index++, dto);
+                if (batch.size() == batchSize) {
+                    processBatch(batch, counts);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                processBatch(batch, counts);
+            }
+            counts.received = index;
+        } catch (IOException ex) {
+            throw new BadRequestException("Could not read request body: " + ex.getMessage());
+        }
+
+        if (counts.inserted + counts.updated > 0) {
+            // rows are written by SKU, so we don't know which cached ids went stale
+            clearCache(CacheNames.PRODUCTS);
+            clearCache(CacheNames.PRODUCT_SNAPSHOTS);
+        }
+
+        counts.errors.sort(Comparator.comparingInt(BulkRowErrorDTO::getIndex));
+        return new ProductUpsertResultDTO(counts.received, counts.inserted, counts.updated,
+                counts.unchanged, counts.errors.size(), counts.errors);
+    }
+
+    private void processBatch(Map<Integer, ProductCreateDTO> batch, Counts counts) {
+        // 1. payload validation; a SKU may appear only once per batch
+        Map<String, ProductCreateDTO> bySku = new LinkedHashMap<>();
+        Map<String, Integer> indexBySku = new HashMap<>();
+        batch.forEach((i, dto) -> {
+            String error = validate(dto);
+            if (error == null && bySku.containsKey(dto.getSku().trim())) {
+                error = "Duplicate SKU in batch";
+            }
+            if (error != null) {
+                counts.errors.add(new BulkRowErrorDTO(i, dto == null ? null : dto.getSku(), error));
+                return;
+            }
+            bySku.put(dto.getSku().trim(), dto);
+            indexBySku.put(dto.getSku().trim(), i);
+        });
+        if (bySku.isEmpty()) return;
+
+        try {
+            tx.executeWithoutResult(status -> writeBatch(bySku, indexBySku, counts));
+        } catch (DataAccessException ex) {
+            String reason = "Batch write failed: " + ex.getMostSpecificCause().getMessage();
+            bySku.forEach((sku, dto) -> counts.errors.add(new BulkRowErrorDTO(indexBySku.get(sku), sku, reason)));
+        }
+    }
+
+    private void writeBatch(Map<String, ProductCreateDTO> bySku, Map<String, Integer> indexBySku, Counts counts) {
+        BatchPlan plan = plan(bySku, indexBySku);
+
+        // 4. one batched statement for every inserted or changed row
+        if (!plan.writes().isEmpty()) {
+            jdbc.batchUpdate(UPSERT_SQL, plan.writes(), plan.writes().size(), (ps, row) -> {
+                ps.setString(1, row.sku());
+                ps.setString(2, row.name());
+                ps.setLong(3, row.categoryId());
+                ps.setBigDecimal(4, row.price());
+                ps.setInt(5, row.quantity());
+                ps.setString(6, row.hash());
+            });
+        }
+
+        // only count once the batch is written (a failed batch is reported as errors instead)
+        counts.inserted += plan.inserted();
+        counts.updated += plan.updated();
+        counts.unchanged += plan.unchanged();
+        counts.errors.addAll(plan.errors());
+    }
+
+    /**
+     * Classify a validated batch against the stored rows: new SKUs are inserted, SKUs whose
+     * content hash differs are updated, the rest are left alone.
+     */
+    BatchPlan plan(Map<String, ProductCreateDTO> bySku, Map<String, Integer> indexBySku) {
+        // 2. categories resolved once per batch
+        Set<Long> categoryIds = bySku.values().stream()
+                .map(ProductCreateDTO::getCategoryId)
+                .collect(Collectors.toSet());
+        Set<Long> knownCategories = categoryRepository.findAllById(categoryIds).stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+
+        // 3. current hashes for the batch's SKUs in one query
+        Map<String, String> currentHash = new HashMap<>();
+        productRepository.findContentHashesBySkuIn(bySku.keySet())
+                .forEach(h -> currentHash.put(h.getSku(), h.getContentHash()));
+
+        List<Row> writes = new ArrayList<>();
+        int inserted = 0, updated = 0, unchanged = 0;
+        List<BulkRowErrorDTO> errors = new ArrayList<>();
+
+        for (Map.Entry<String, ProductCreateDTO> e : bySku.entrySet()) {
+            String sku = e.getKey();
+            ProductCreateDTO dto = e.getValue();
+            int index = indexBySku.get(sku);
+
+            if (!knownCategories.contains(dto.getCategoryId())) {
+                errors.add(new BulkRowErrorDTO(index, sku, "Category not found: " + dto.getCategoryId()));
+                continue;
+            }
+
+            String name = dto.getName().trim();
+            String hash = ProductContentHash.of(sku, name, dto.getCategoryId(), dto.getPrice(), dto.getQuantity());
+
+            if (!currentHash.containsKey(sku)) {
+                inserted++;
+            } else if (hash.equals(currentHash.get(sku))) {
+                unchanged++;
+                continue;
+            } else if (hotInventory.map(hot -> hot.isHotSku(sku)).orElse(false)) {
+                // the flush would apply in-memory deltas over the feed quantity
+                errors.add(new BulkRowErrorDTO(index, sku, "Stock of hot SKU is held in memory and cannot be synced"));
+                continue;
+            } else {
+                updated++;
+            }
+            writes.add(new Row(index, sku, name, dto.getCategoryId(), dto.getPrice(), dto.getQuantity(), hash));
+        }
+
+        return new BatchPlan(writes, inserted, updated, unchanged, errors);
+    }
+
+    private void clearCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) cache.clear();
+    }
+
+    private String validate(ProductCreateDTO dto) {
+        if (dto == null) return "Product must not be null";
+
+        Set<ConstraintViolation<ProductCreateDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<ProductCreateDTO> v = violations.iterator().next();
+            return v.getPropertyPath() + ": " + v.getMessage();
+        }
+        return null;
+    }
+}
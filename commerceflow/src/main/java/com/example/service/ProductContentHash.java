@@ -0,0 +1,31 @@
+package com.example.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hash of the product fields a catalog sync can change, as last written by a sync or the
+ * product API. It describes that feed content, not live stock: orders move products.quantity
+ * without touching it, so resending the same feed quantity is not a change. Price is
+ * normalized so 10.5 and 10.5000 (the stored scale) hash the same.
+ */
+final class ProductContentHash {
+
+    private ProductContentHash() {
+    }
+
+    static String of(String sku, String name, Long categoryId, BigDecimal price, Integer quantity) {
+        String canonical = String.join("\u0000",
+                sku, name, String.valueOf(categoryId),
+                price.stripTrailingZeros().toPlainString(), String.valueOf(quantity));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -1,28 +1,40 @@
 package com.example.service;
 
+import com.example.config.cache.CacheNames;
+import com.example.config.retry.RetryOnConflict;
 import com.example.dto.*;
 import com.example.entity.Product;
 import com.example.exception.BadRequestException;
 import com.example.exception.ConflictException;
 import com.example.exception.ResourceNotFoundException;
 import com.example.repository.CategoryRepository;
+import com.example.repository.ProductKeyset;
 import com.example.repository.ProductRepository;
+import com.example.service.inventory.HotInventory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ProductService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductSnapshotCache productSnapshots;
+    private final Optional<HotInventory> hotInventory;
 
     public ProductDTO create(ProductCreateDTO dto) {
         validatePriceAndQuantity(dto.getPrice(), dto.getQuantity());
@@ -40,17 +52,29 @@ public class ProductService {
                 .category(category)
                 .price(dto.getPrice())
                 .quantity(dto.getQuantity())
+                .contentHash(ProductContentHash.of(dto.getSku().trim(), dto.getName().trim(),
+                        category.getId(), dto.getPrice(), dto.getQuantity()))
                 .build();
 
         Product saved = productRepository.save(product);
         return toDTO(saved);
     }
 
+    // Full replacement: not retried on conflict, a stale payload fails with 409 instead
+    @CacheEvict(cacheNames = CacheNames.PRODUCTS, key = "#id")
     public ProductDTO update(Long id, ProductUpdateDTO dto) {
         validatePriceAndQuantity(dto.getPrice(), dto.getQuantity());
 
         Product existing = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        if (!Objects.equals(dto.getVersion(), existing.getVersion())) {
+            throw new ConflictException("Product is at version " + existing.getVersion() + ", reload and retry");
+        }
+        // a hot SKU's stock is held in memory; the next flush would apply its deltas over a direct write
+        if (!dto.getQuantity().equals(existing.getQuantity())
+                && hotInventory.map(hot -> hot.isHot(id)).orElse(false)) {
+            throw new ConflictException("Stock of hot product " + id + " is held in memory and cannot be set directly");
+        }
 
         var category = categoryRepository.findById(dto.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found: " + dto.getCategoryId()));
@@ -59,32 +83,90 @@ public class ProductService {
         existing.setCategory(category);
         existing.setPrice(dto.getPrice());
         existing.setQuantity(dto.getQuantity());
+        existing.setContentHash(ProductContentHash.of(existing.getSku(), existing.getName(),
+                category.getId(), dto.getPrice(), dto.getQuantity()));
 
-        Product saved = productRepository.save(existing);
+        Product saved = productRepository.saveAndFlush(existing);  // flush so the DTO carries the bumped version
+        productSnapshots.evict(id);
         return toDTO(saved);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.PRODUCTS, key = "#id")
     public ProductDTO getById(Long id) {
         Product p = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         return toDTO(p);
     }
 
+    /**
+     * Catalog listing with keyset pagination. Sorts by id or createdAt (id breaks ties)
+     * and resumes strictly after the row encoded in the cursor, so deep pages cost the
+     * same as the first one.
+     */
     @Transactional(readOnly = true)
-    public List<ProductDTO> getAll() {
-        return productRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public CursorPage<ProductDTO> searchCatalog(ProductFilter filter, String sortBy, String sortDir,
+                                                String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!"id".equals(sortBy) && !"createdAt".equals(sortBy)) {
+            throw new BadRequestException("sortBy must be id or createdAt");
+        }
+        if (!"asc".equalsIgnoreCase(sortDir) && !"desc".equalsIgnoreCase(sortDir)) {
+            throw new BadRequestException("sortDir must be asc or desc");
+        }
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+
+        boolean byCreatedAt = "createdAt".equals(sortBy);
+        boolean descending = "desc".equalsIgnoreCase(sortDir);
+
+        Instant afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            // cursor = sortBy | direction | createdAt (or "-") | id
+            String[] parts = CursorCodec.decode(cursor, 4);
+            if (!parts[0].equals(sortBy) || !parts[1].equals(descending ? "desc" : "asc")) {
+                throw new BadRequestException("Cursor does not match sortBy/sortDir");
+            }
+            try {
+                afterCreatedAt = byCreatedAt ? Instant.parse(parts[2]) : null;
+                afterId = Long.valueOf(parts[3]);
+            } catch (RuntimeException ex) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        // fetch one extra row to know whether another page exists
+        List<ProductDTO> rows = productRepository.searchCatalog(
+                filter, new ProductKeyset(byCreatedAt, descending, afterCreatedAt, afterId), size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<ProductDTO> items = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductDTO last = items.get(items.size() - 1);
+            nextCursor = CursorCodec.encode(sortBy, descending ? "desc" : "asc",
+                    byCreatedAt ? last.getCreatedAt() : "-", last.getId());
+        }
+
+        return new CursorPage<>(List.copyOf(items), items.size(), hasNext, nextCursor);
     }
 
-        public void delete(Long id) {
+    @RetryOnConflict
+    @CacheEvict(cacheNames = CacheNames.PRODUCTS, key = "#id")
+    public void delete(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
         try {
             productRepository.delete(product);
             productRepository.flush(); // force SQL to run now so we can catch FK violations here
+            productSnapshots.evict(id);
         } catch (DataIntegrityViolationException ex) {
             // keep message user-friendly and consistent with CategoryService
             throw new ConflictException("Product cannot be deleted because orders reference it");
@@ -106,7 +188,7 @@ public class ProductService {
         }
     }
 
-    private ProductDTO toDTO(Product p) {
+    static ProductDTO toDTO(Product p) {
         return ProductDTO.builder()
                 .id(p.getId())
                 .sku(p.getSku())
@@ -116,6 +198,7 @@ public class ProductService {
                 .price(p.getPrice())
                 .quantity(p.getQuantity())
                 .createdAt(p.getCreatedAt())
+                .version(p.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,65 @@
+package com.example.service;
+
+import com.example.config.cache.CacheNames;
+import com.example.dto.ProductSnapshot;
+import com.example.repository.ProductRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Read-through cache of product prices for the order write paths. Lines are priced from
+ * the snapshot and attach the product by reference, so repeated orders for the same
+ * products never SELECT from products.
+ */
+@Component
+public class ProductSnapshotCache {
+
+    private final Cache cache;
+    private final ProductRepository productRepo;
+
+    public ProductSnapshotCache(CacheManager cacheManager, ProductRepository productRepo) {
+        this.cache = cacheManager.getCache(CacheNames.PRODUCT_SNAPSHOTS);
+        this.productRepo = productRepo;
+    }
+
+    /**
+     * Snapshots for the given ids. All misses are loaded with one IN query;
+     * ids that do not exist are simply absent from the result.
+     */
+    public Map<Long, ProductSnapshot> getAll(Collection<Long> ids) {
+        Map<Long, ProductSnapshot> result = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+
+        for (Long id : ids) {
+            ProductSnapshot hit = cache.get(id, ProductSnapshot.class);
+            if (hit != null) {
+                result.put(id, hit);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (ProductSnapshot loaded : productRepo.findSnapshotsByIdIn(misses)) {
+                cache.put(loaded.id(), loaded);
+                result.put(loaded.id(), loaded);
+            }
+        }
+        return result;
+    }
+
+    public Optional<ProductSnapshot> get(Long id) {
+        return Optional.ofNullable(getAll(List.of(id)).get(id));
+    }
+
+    public void evict(Long id) {
+        cache.evict(id);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
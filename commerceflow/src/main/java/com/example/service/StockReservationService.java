@@ -0,0 +1,141 @@
+package com.example.service;
+
+import com.example.config.cache.CacheNames;
+import com.example.exception.ConflictException;
+import com.example.service.inventory.HotInventory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Stock reservation against {@code products.quantity}.
+ *
+ * Every line is a conditional, atomic decrement ({@code quantity >= ?} checked by the
+ * database on the locked row), so concurrent buyers of a hot SKU can never oversell and
+ * never hold a lock between a read and a write. All lines of a request go out as one JDBC
+ * batch in ascending product id order: two orders touching the same products always lock
+ * them in the same order and cannot deadlock. Runs inside the caller's transaction, so a
+ * failed reservation rolls back together with the order that needed it.
+ *
+ * When the hot inventory is enabled, flagged SKUs are reserved in memory by
+ * {@link HotInventory} instead and only the remaining lines go to the database.
+ */
+@Service
+public class StockReservationService {
+
+    private static final String RESERVE_SQL =
+            "UPDATE products SET quantity = quantity - ?, version = version + 1 WHERE id = ? AND quantity >= ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE products SET quantity = quantity + ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbc;
+    private final Cache productCache;
+    private final Optional<HotInventory> hotInventory;
+
+    public StockReservationService(JdbcTemplate jdbc, CacheManager cacheManager, Optional<HotInventory> hotInventory) {
+        this.jdbc = jdbc;
+        this.productCache = cacheManager.getCache(CacheNames.PRODUCTS);
+        this.hotInventory = hotInventory;
+    }
+
+    /**
+     * Sum quantities per product id, sorted by id (the lock order used by reserve/release).
+     */
+    public static <T> SortedMap<Long, Integer> quantitiesByProduct(Collection<T> lines,
+                                                                   Function<T, Long> productId,
+                                                                   ToIntFunction<T> quantity) {
+        SortedMap<Long, Integer> totals = new TreeMap<>();
+        for (T line : lines) {
+            totals.merge(productId.apply(line), quantity.applyAsInt(line), Integer::sum);
+        }
+        return totals;
+    }
+
+    /**
+     * Take the given quantities out of stock, all or nothing.
+     *
+     * @throws ConflictException listing every product without enough stock; the caller's
+     *                           transaction is then rolled back, undoing the other lines
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> lines = handOffHot(sorted(quantities), HotInventory::reserve);
+        if (lines.isEmpty()) return;
+
+        int[][] counts = jdbc.batchUpdate(RESERVE_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setLong(2, line.getKey());
+            ps.setInt(3, line.getValue());
+        });
+
+        List<Long> shortfall = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (counts[0][i] == 0) {
+                shortfall.add(lines.get(i).getKey());
+            }
+        }
+        if (!shortfall.isEmpty()) {
+            throw new ConflictException("Insufficient stock for products: " + shortfall);
+        }
+
+        evictProducts(lines);
+    }
+
+    /**
+     * Put previously reserved quantities back into stock (order or item deleted, quantity lowered).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> lines = handOffHot(sorted(quantities), HotInventory::release);
+        if (lines.isEmpty()) return;
+
+        jdbc.batchUpdate(RELEASE_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setLong(2, line.getKey());
+        });
+
+        evictProducts(lines);
+    }
+
+    // Hand hot SKU lines to the in-memory inventory; returns the lines left for the database
+    private List<Map.Entry<Long, Integer>> handOffHot(List<Map.Entry<Long, Integer>> lines,
+                                                      BiConsumer<HotInventory, Map<Long, Integer>> action) {
+        if (hotInventory.isEmpty()) return lines;
+        HotInventory hot = hotInventory.get();
+
+        Map<Long, Integer> hotLines = new LinkedHashMap<>();
+        List<Map.Entry<Long, Integer>> rest = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : lines) {
+            if (hot.isHot(line.getKey())) {
+                hotLines.put(line.getKey(), line.getValue());
+            } else {
+                rest.add(line);
+            }
+        }
+        if (!hotLines.isEmpty()) {
+            action.accept(hot, hotLines);
+        }
+        return rest;
+    }
+
+    private static List<Map.Entry<Long, Integer>> sorted(Map<Long, Integer> quantities) {
+        return new TreeMap<>(quantities).entrySet().stream()
+                .filter(line -> line.getValue() != null && line.getValue() > 0)
+                .toList();
+    }
+
+    // cached ProductDTOs carry the stock level; evictions are deferred to commit by the cache manager
+    private void evictProducts(List<Map.Entry<Long, Integer>> lines) {
+        if (productCache == null) return;
+        lines.forEach(line -> productCache.evict(line.getKey()));
+    }
+}
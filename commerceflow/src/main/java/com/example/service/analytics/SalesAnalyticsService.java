@@ -0,0 +1,65 @@
+package com.example.service.analytics;
+
+import com.example.dto.SalesDayDTO;
+import com.example.dto.SalesSeriesDTO;
+import com.example.dto.SalesTotalDTO;
+import com.example.exception.BadRequestException;
+import com.example.repository.SalesRollupRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales reports, read from the daily rollups only (never from orders / order_items).
+ * Figures trail the order writes by up to one compaction interval.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final int MAX_TOP = 100;
+
+    private final SalesRollupRepository rollups;
+
+    public SalesAnalyticsService(SalesRollupRepository rollups) {
+        this.rollups = rollups;
+    }
+
+    /**
+     * Daily units and revenue of one product, category or customer, from and to inclusive.
+     */
+    @Transactional(readOnly = true)
+    public SalesSeriesDTO series(SalesDimension dimension, Long id, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+
+        List<SalesDayDTO> days = rollups.findDays(dimension.name(), id, from, to);
+        long units = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (SalesDayDTO day : days) {
+            units += day.getUnits();
+            revenue = revenue.add(day.getRevenue());
+        }
+        return new SalesSeriesDTO(dimension.path(), id, from, to, units, revenue, days);
+    }
+
+    /**
+     * Highest-revenue products, categories or customers over the range, from and to inclusive.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesTotalDTO> top(SalesDimension dimension, LocalDate from, LocalDate to, int limit) {
+        validateRange(from, to);
+        if (limit < 1 || limit > MAX_TOP) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_TOP);
+        }
+        return rollups.findTop(dimension.name(), from, to, Limit.of(limit));
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.service.analytics;
+
+import com.example.exception.BadRequestException;
+
+/**
+ * What a sales rollup is grouped by; the name is stored in sales_rollups.dimension,
+ * the path segment is used by /api/analytics/sales/{dimension}.
+ */
+public enum SalesDimension {
+    PRODUCT("products"),
+    CATEGORY("categories"),
+    CUSTOMER("customers");
+
+    private final String path;
+
+    SalesDimension(String path) {
+        this.path = path;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public static SalesDimension fromPath(String path) {
+        for (SalesDimension dimension : values()) {
+            if (dimension.path.equals(path)) return dimension;
+        }
+        throw new BadRequestException("dimension must be products, categories or customers");
+    }
+}
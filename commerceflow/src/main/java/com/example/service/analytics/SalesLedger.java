@@ -0,0 +1,56 @@
+package com.example.service.analytics;
+
+import com.example.entity.Order;
+import com.example.repository.SalesLedgerRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Write side of the sales analytics: every order and item write appends its signed
+ * delta here, in its own transaction (MANDATORY), so the rollups can never count a
+ * write that rolled back. Appends only; the rollups are updated by {@link SalesRollupCompactor}.
+ */
+@Component
+public class SalesLedger {
+
+    private final SalesLedgerRepository ledger;
+
+    public SalesLedger(SalesLedgerRepository ledger) {
+        this.ledger = ledger;
+    }
+
+    /**
+     * Every line of orders persisted in the current transaction, one statement for all of them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<Order> orders) {
+        if (orders.isEmpty()) return;
+        ledger.appendOrders(orders.stream().map(Order::getId).toList());
+    }
+
+    /**
+     * A line was added, changed or removed: units and revenue are the (signed) difference,
+     * booked against the category recorded on the line.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordLineChange(Long orderId, Long productId, Long categoryId, long units, BigDecimal revenue) {
+        if (units == 0 && revenue.signum() == 0) return;
+        ledger.appendLine(orderId, productId, categoryId, units, revenue);
+    }
+
+    // must run before the order's items are deleted
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Long orderId) {
+        ledger.reverseOrder(orderId);
+    }
+
+    // must run before the customer's orders are deleted
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCustomerDeleted(Long customerId) {
+        ledger.reverseCustomer(customerId);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.service.analytics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Folds the sales ledger into the daily rollups, a batch per transaction:
+ * claim the oldest ledger rows (FOR UPDATE SKIP LOCKED, so compactors on several
+ * instances take disjoint batches), sum them per product, category and customer day,
+ * add the sums to sales_rollups and delete exactly the rows that were claimed.
+ *
+ * Rollup rows are created with INSERT ... ON CONFLICT DO NOTHING and then incremented,
+ * in key order, so two compactors touching the same days cannot deadlock.
+ */
+@Component
+public class SalesRollupCompactor {
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::dimension)
+            .thenComparing(RollupKey::dimensionId)
+            .thenComparing(RollupKey::saleDate);
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final MeterRegistry meters;
+    private final int batchSize;
+
+    public SalesRollupCompactor(JdbcTemplate jdbc,
+                                PlatformTransactionManager txManager,
+                                MeterRegistry meters,
+                                @Value("${commerceflow.analytics.compaction-batch-size:5000}") int batchSize) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.meters = meters;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Fold everything currently in the ledger; returns the number of entries folded.
+     */
+    @Scheduled(fixedDelayString = "${commerceflow.analytics.compaction-interval-ms:5000}")
+    public int compact() {
+        Timer.Sample sample = Timer.start(meters);
+        int total = 0;
+        int folded;
+        do {
+            folded = tx.execute(status -> compactBatch());
+            total += folded;
+        } while (folded == batchSize);
+
+        sample.stop(meters.timer("commerceflow.analytics.compaction"));
+        meters.counter("commerceflow.analytics.ledger.compacted").increment(total);
+        return total;
+    }
+
+    private int compactBatch() {
+        List<Long> ids = new ArrayList<>();
+        Map<RollupKey, Totals> rollups = new TreeMap<>(KEY_ORDER);
+
+        jdbc.query("SELECT id, order_date, product_id, category_id, customer_id, units, revenue FROM sales_ledger "
+                + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED", rs -> {
+            ids.add(rs.getLong("id"));
+            LocalDate day = LocalDate.ofInstant(rs.getTimestamp("order_date").toInstant(), ZoneOffset.UTC);
+            long units = rs.getLong("units");
+            BigDecimal revenue = rs.getBigDecimal("revenue");
+            add(rollups, new RollupKey(SalesDimension.PRODUCT.name(), rs.getLong("product_id"), day), units, revenue);
+            add(rollups, new RollupKey(SalesDimension.CATEGORY.name(), rs.getLong("category_id"), day), units, revenue);
+            add(rollups, new RollupKey(SalesDimension.CUSTOMER.name(), rs.getLong("customer_id"), day), units, revenue);
+        }, batchSize);
+
+        if (ids.isEmpty()) return 0;
+
+        List<Object[]> keys = new ArrayList<>(rollups.size());
+        List<Object[]> increments = new ArrayList<>(rollups.size());
+        rollups.forEach((key, totals) -> {
+            keys.add(new Object[]{key.dimension(), key.dimensionId(), key.saleDate()});
+            increments.add(new Object[]{totals.units, totals.revenue, key.dimension(), key.dimensionId(), key.saleDate()});
+        });
+
+        jdbc.batchUpdate("INSERT INTO sales_rollups (dimension, dimension_id, sale_date, units, revenue) "
+                + "VALUES (?, ?, ?, 0, 0) ON CONFLICT DO NOTHING", keys);
+        jdbc.batchUpdate("UPDATE sales_rollups SET units = units + ?, revenue = revenue + ? "
+                + "WHERE dimension = ? AND dimension_id = ? AND sale_date = ?", increments);
+        jdbc.batchUpdate("DELETE FROM sales_ledger WHERE id = ?", ids.stream().map(id -> new Object[]{id}).toList());
+
+        return ids.size();
+    }
+
+    private static void add(Map<RollupKey, Totals> rollups, RollupKey key, long units, BigDecimal revenue) {
+        Totals totals = rollups.computeIfAbsent(key, k -> new Totals());
+        totals.units += units;
+        totals.revenue = totals.revenue.add(revenue);
+    }
+
+    private record RollupKey(String dimension, long dimensionId, LocalDate saleDate) {
+    }
+
+    private static final class Totals {
+        long units;
+        BigDecimal revenue = BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,355 @@
+package com.example.service.inventory;
+
+import com.example.exception.ConflictException;
+import com.example.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional in-memory stock for flagged hot SKUs.
+ *
+ * Each flagged product's quantity lives in a {@link StripedCounter}, so reservations are
+ * lock-free CAS operations instead of updates queuing on one products row. Every change
+ * is written to the {@link InventoryJournal} (and synced, for reservations) before the
+ * order can commit; a scheduled flush applies the summed deltas to products.quantity in
+ * one batch together with the journal checkpoint. On startup, journal records newer than
+ * the checkpoint are replayed into the database before the counters are loaded.
+ *
+ * The counters are the source of truth for availability, so:
+ * - only one application instance may run with a given SKU flagged;
+ * - flagged SKUs are resolved at startup, before the web server accepts requests;
+ * - products.quantity of a flagged SKU lags by up to one flush interval;
+ * - direct quantity writes to a flagged SKU (product update, catalog sync) are rejected
+ *   while it is held here, since the next flush would apply deltas over them.
+ */
+@Component
+@ConditionalOnProperty(name = "commerceflow.inventory.hot.enabled", havingValue = "true")
+public class HotInventory implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(HotInventory.class);
+
+    private static final String CHECKPOINT = "hot-inventory";
+
+    private static final String APPLY_SQL =
+            "UPDATE products SET quantity = quantity + ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private final TransactionTemplate tx;
+    private final Set<String> skus;
+    private final int stripes;
+    private final Path journalDir;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // reservations and releases whose transaction has not completed yet; stop() waits for them
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Condition drained = drainLock.newCondition();
+
+    private volatile Map<Long, StripedCounter> counters = Map.of();
+    private volatile Set<String> heldSkus = Set.of();
+    private volatile InventoryJournal journal;
+    private volatile boolean running;
+
+    public HotInventory(JdbcTemplate jdbc,
+                        PlatformTransactionManager txManager,
+                        @Value("${commerceflow.inventory.hot.skus:}") Set<String> skus,
+                        @Value("${commerceflow.inventory.hot.stripes:16}") int stripes,
+                        @Value("${commerceflow.inventory.hot.journal-dir:data/inventory-journal}") Path journalDir) {
+        this.jdbc = jdbc;
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+        this.tx = new TransactionTemplate(txManager);
+        this.skus = skus;
+        this.stripes = stripes;
+        this.journalDir = journalDir;
+    }
+
+    public boolean isHot(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    public boolean isHotSku(String sku) {
+        return heldSkus.contains(sku);
+    }
+
+    /**
+     * Take the given (hot) quantities, all or nothing, and return once the reservation is
+     * journaled on disk. If the surrounding transaction rolls back, the stock is put back.
+     *
+     * @throws ConflictException listing every product without enough stock
+     * @throws ServiceUnavailableException once the inventory is stopping
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        enter();
+        boolean handedOff = false;
+        try {
+            Map<Long, Long> taken = new LinkedHashMap<>();
+            List<Long> shortfall = new ArrayList<>();
+
+            quantities.forEach((productId, quantity) -> {
+                if (counter(productId).tryTake(quantity)) {
+                    taken.put(productId, (long) quantity);
+                } else {
+                    shortfall.add(productId);
+                }
+            });
+
+            if (!shortfall.isEmpty()) {
+                taken.forEach((productId, quantity) -> counter(productId).add(quantity));
+                throw new ConflictException("Insufficient stock for products: " + shortfall);
+            }
+
+            Map<Long, Long> deltas = new LinkedHashMap<>();
+            taken.forEach((productId, quantity) -> deltas.put(productId, -quantity));
+            journal.sync(journal.append(deltas));
+
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        try {
+                            if (status != STATUS_COMMITTED) {
+                                giveBack(taken);
+                            }
+                        } finally {
+                            exit();
+                        }
+                    }
+                });
+                handedOff = true;
+            }
+        } finally {
+            if (!handedOff) exit();
+        }
+    }
+
+    /**
+     * Put (hot) quantities back once the surrounding transaction commits.
+     *
+     * @throws ServiceUnavailableException once the inventory is stopping
+     */
+    public void release(Map<Long, Integer> quantities) {
+        Map<Long, Long> released = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> released.put(productId, (long) quantity));
+
+        enter();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            giveBack(released);
+                        }
+                    } finally {
+                        exit();
+                    }
+                }
+            });
+        } else {
+            try {
+                giveBack(released);
+            } finally {
+                exit();
+            }
+        }
+    }
+
+    /**
+     * Current in-memory availability of a hot product.
+     */
+    public OptionalLong available(Long productId) {
+        StripedCounter counter = counters.get(productId);
+        return counter == null ? OptionalLong.empty() : OptionalLong.of(counter.sum());
+    }
+
+    private void giveBack(Map<Long, Long> quantities) {
+        quantities.forEach((productId, quantity) -> counter(productId).add(quantity));
+        // not synced: losing a give-back in a crash under-sells, it never oversells
+        journal.append(quantities);
+    }
+
+    // counted before running is read, so stop() either sees the operation or the operation sees stop()
+    private void enter() {
+        inFlight.incrementAndGet();
+        if (!running) {
+            exit();
+            throw new ServiceUnavailableException("Hot inventory is stopping, please retry");
+        }
+    }
+
+    private void exit() {
+        if (inFlight.decrementAndGet() == 0 && !running) {
+            drainLock.lock();
+            try {
+                drained.signalAll();
+            } finally {
+                drainLock.unlock();
+            }
+        }
+    }
+
+    private StripedCounter counter(Long productId) {
+        StripedCounter counter = counters.get(productId);
+        if (counter == null) {
+            throw new IllegalStateException("Product " + productId + " is not a hot SKU");
+        }
+        return counter;
+    }
+
+    /* -------------------------
+       Reconciliation
+       ------------------------- */
+
+    /**
+     * Apply everything journaled since the previous flush to products.quantity.
+     * A failed flush keeps its deltas for the next attempt.
+     */
+    @Scheduled(fixedDelayString = "${commerceflow.inventory.hot.flush-interval-ms:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            // checked under the lock: stop() closes the journal while holding it
+            if (running) writeBack();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeBack() {
+        InventoryJournal.Batch batch = journal.drain();
+        try {
+            apply(batch);
+        } catch (RuntimeException ex) {
+            journal.restore(batch);
+            log.warn("Hot inventory flush failed, retrying with the next flush", ex);
+            return;
+        }
+        journal.committed(batch);
+    }
+
+    private void apply(InventoryJournal.Batch batch) {
+        List<Map.Entry<Long, Long>> deltas = new TreeMap<>(batch.deltas()).entrySet().stream()
+                .filter(delta -> delta.getValue() != 0)
+                .toList();
+
+        tx.executeWithoutResult(status -> {
+            if (!deltas.isEmpty()) {
+                jdbc.batchUpdate(APPLY_SQL, deltas, deltas.size(), (ps, delta) -> {
+                    ps.setLong(1, delta.getValue());
+                    ps.setLong(2, delta.getKey());
+                });
+            }
+            jdbc.update("UPDATE inventory_checkpoints SET last_seq = ? WHERE name = ? AND last_seq < ?",
+                    batch.lastSeq(), CHECKPOINT, batch.lastSeq());
+        });
+    }
+
+    /**
+     * Replay the journal left by the previous run, then load the counters from the
+     * reconciled quantities.
+     */
+    @Override
+    public void start() {
+        long checkpoint = readCheckpoint();
+        journal = new InventoryJournal(journalDir, checkpoint);
+
+        InventoryJournal.Batch leftover = journal.recover(checkpoint);
+        apply(leftover);
+        journal.committed(leftover);
+        if (!leftover.deltas().isEmpty()) {
+            log.info("Replayed hot inventory journal for products {}", leftover.deltas().keySet());
+        }
+
+        Map<Long, StripedCounter> loaded = new HashMap<>();
+        Set<String> loadedSkus = new HashSet<>();
+        if (!skus.isEmpty()) {
+            named.query("SELECT id, sku, quantity FROM products WHERE sku IN (:skus)", Map.of("skus", skus),
+                    rs -> {
+                        loaded.put(rs.getLong("id"), new StripedCounter(stripes, Math.max(0, rs.getLong("quantity"))));
+                        loadedSkus.add(rs.getString("sku"));
+                    });
+        }
+        counters = Map.copyOf(loaded);
+        heldSkus = Set.copyOf(loadedSkus);
+        running = true;
+        log.info("Hot inventory holding {} of {} flagged SKUs in memory", loaded.size(), skus.size());
+    }
+
+    /**
+     * Refuse new reservations and releases, wait for the transactions still holding some to
+     * complete (their give-backs touch the counters and the journal), then flush and close.
+     */
+    @Override
+    public void stop() {
+        if (!running) return;
+        running = false;
+        awaitInFlight(30, TimeUnit.SECONDS);
+
+        flushLock.lock();
+        try {
+            writeBack();
+            counters = Map.of();
+            heldSkus = Set.of();
+            journal.close();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void awaitInFlight(long timeout, TimeUnit unit) {
+        long nanos = unit.toNanos(timeout);
+        drainLock.lock();
+        try {
+            while (inFlight.get() > 0) {
+                if (nanos <= 0) {
+                    log.warn("Stopping hot inventory with {} transactions still in flight", inFlight.get());
+                    return;
+                }
+                nanos = drained.awaitNanos(nanos);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // start before the web server (DEFAULT_PHASE - 1024) so no request sees a half-loaded inventory
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private long readCheckpoint() {
+        List<Long> seqs = jdbc.queryForList("SELECT last_seq FROM inventory_checkpoints WHERE name = ?",
+                Long.class, CHECKPOINT);
+        if (!seqs.isEmpty()) return seqs.get(0);
+
+        jdbc.update("INSERT INTO inventory_checkpoints (name, last_seq) VALUES (?, 0)", CHECKPOINT);
+        return 0;
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.service.inventory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of stock deltas for the hot inventory.
+ *
+ * Records are fixed size (seq, product id, delta, CRC) in numbered segment files, so a
+ * record torn by a crash is detected and ignored on replay. Appends go to the page cache
+ * under a short lock; {@link #sync} is a group commit: one caller forces the file for
+ * everyone who appended before it. {@link #drain} seals the current segment together
+ * with the deltas aggregated from it, and the segment is deleted once those deltas
+ * are safely in the database ({@link #committed}).
+ */
+final class InventoryJournal implements AutoCloseable {
+
+    private static final int RECORD_SIZE = Long.BYTES * 3 + Integer.BYTES;
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    /** Deltas drained from sealed segments, to be applied to the database up to {@code lastSeq}. */
+    record Batch(Map<Long, Long> deltas, long lastSeq, List<Path> segments) {
+    }
+
+    private final Path dir;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    // guarded by appendLock
+    private FileChannel channel;
+    private long channelFirstSeq;
+    private Map<Long, Long> pending = new HashMap<>();
+    private final List<Path> sealed = new ArrayList<>();
+    private long lastSeq;
+
+    private volatile long durableSeq;
+
+    /**
+     * Open the journal directory. Segments left over from a previous run are kept
+     * (sealed) until {@link #committed} is called for a batch that includes them.
+     */
+    InventoryJournal(Path dir, long checkpoint) {
+        this.dir = dir;
+        try {
+            Files.createDirectories(dir);
+            sealed.addAll(segments());
+            lastSeq = Math.max(checkpoint, replay(sealed, Long.MIN_VALUE).lastSeq());
+            durableSeq = lastSeq;
+            // an empty leftover segment can carry the next segment's name: reuse it, don't seal it
+            sealed.remove(segmentPath(lastSeq + 1));
+            channel = openSegment(lastSeq + 1);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open inventory journal in " + dir, ex);
+        }
+    }
+
+    /**
+     * Deltas recorded in leftover segments after the given checkpoint, i.e. reservations
+     * that never reached the database. The returned batch covers every leftover segment.
+     */
+    Batch recover(long checkpoint) {
+        appendLock.lock();
+        try {
+            Batch replayed = replay(sealed, checkpoint);
+            return new Batch(replayed.deltas(), Math.max(checkpoint, replayed.lastSeq()), List.copyOf(sealed));
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Append one record per delta and return the sequence of the last one.
+     * The records are not durable until {@link #sync} has been called with that sequence.
+     */
+    long append(Map<Long, Long> deltas) {
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE * deltas.size());
+        appendLock.lock();
+        try {
+            for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+                write(buf, ++lastSeq, delta.getKey(), delta.getValue());
+                pending.merge(delta.getKey(), delta.getValue(), Long::sum);
+            }
+            buf.flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            return lastSeq;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append to inventory journal", ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Block until every record up to {@code seq} is on disk.
+     */
+    void sync(long seq) {
+        if (durableSeq >= seq) return;
+        syncLock.lock();
+        try {
+            if (durableSeq >= seq) return;   // forced by the previous holder
+
+            FileChannel target;
+            long upTo;
+            appendLock.lock();
+            try {
+                target = channel;
+                upTo = lastSeq;
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                target.force(false);
+            } catch (ClosedChannelException sealedMeanwhile) {
+                // a concurrent drain forced this segment before closing it
+            }
+            durableSeq = Math.max(durableSeq, upTo);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not sync inventory journal", ex);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Seal the current segment and hand over everything appended since the previous drain.
+     */
+    Batch drain() {
+        appendLock.lock();
+        try {
+            Map<Long, Long> deltas = pending;
+            pending = new HashMap<>();
+            if (channelFirstSeq > lastSeq) {
+                // nothing appended since the last rotation: keep the empty segment open
+                return new Batch(deltas, lastSeq, List.copyOf(sealed));
+            }
+
+            channel.force(false);
+            channel.close();
+            durableSeq = Math.max(durableSeq, lastSeq);
+            sealed.add(segmentPath(channelFirstSeq));
+
+            channel = openSegment(lastSeq + 1);
+            return new Batch(deltas, lastSeq, List.copyOf(sealed));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not rotate inventory journal", ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * The batch is in the database: its segments are no longer needed.
+     */
+    void committed(Batch batch) {
+        appendLock.lock();
+        try {
+            for (Path segment : batch.segments()) {
+                Files.deleteIfExists(segment);
+                sealed.remove(segment);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not delete inventory journal segment", ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Applying the batch failed: its deltas go back into the next drain. The segments stay
+     * sealed on disk, so a crash before the next successful drain still replays them.
+     */
+    void restore(Batch batch) {
+        appendLock.lock();
+        try {
+            batch.deltas().forEach((productId, delta) -> pending.merge(productId, delta, Long::sum));
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not close inventory journal", ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /* -------------------------
+       Segment files
+       ------------------------- */
+
+    private FileChannel openSegment(long firstSeq) throws IOException {
+        channelFirstSeq = firstSeq;
+        return FileChannel.open(segmentPath(firstSeq),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return dir.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void write(ByteBuffer buf, long seq, long productId, long delta) {
+        CRC32 crc = new CRC32();
+        int start = buf.position();
+        buf.putLong(seq).putLong(productId).putLong(delta);
+        crc.update(buf.array(), start, Long.BYTES * 3);
+        buf.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Sum the deltas recorded after {@code afterSeq}. Reading stops at the first short or
+     * corrupt record of a segment: that is the tail a crash left half written.
+     */
+    private static Batch replay(List<Path> segments, long afterSeq) {
+        Map<Long, Long> deltas = new HashMap<>();
+        long last = afterSeq;
+        byte[] record = new byte[RECORD_SIZE];
+
+        for (Path segment : segments) {
+            byte[] bytes;
+            try {
+                bytes = Files.readAllBytes(segment);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not read inventory journal segment " + segment, ex);
+            }
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            while (buf.remaining() >= RECORD_SIZE) {
+                buf.get(record);
+                ByteBuffer r = ByteBuffer.wrap(record);
+                long seq = r.getLong();
+                long productId = r.getLong();
+                long delta = r.getLong();
+                CRC32 crc = new CRC32();
+                crc.update(record, 0, Long.BYTES * 3);
+                if ((int) crc.getValue() != r.getInt()) break;
+
+                if (seq > afterSeq) {
+                    deltas.merge(productId, delta, Long::sum);
+                }
+                last = Math.max(last, seq);
+            }
+        }
+        return new Batch(deltas, last, segments);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.service.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Non-negative stock counter split over independent CAS buckets. A taker starts at a
+ * random bucket and only moves on when it is empty, so concurrent reservations of one
+ * SKU rarely touch the same cache line. Buckets never go below zero, so the counter
+ * can under-report availability for an instant but can never oversell.
+ */
+final class StripedCounter {
+
+    // 16 longs = 128 bytes between live slots: no false sharing, even with adjacent-line prefetch
+    private static final int PAD = 16;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    StripedCounter(int stripes, long initial) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PAD);
+        long share = initial / stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PAD, share);
+        }
+        cells.addAndGet(0, initial - share * stripes);
+    }
+
+    /**
+     * Take {@code n} units, all or nothing. Returns false if the buckets did not hold
+     * {@code n} units between them; anything collected on the way is put back.
+     */
+    boolean tryTake(long n) {
+        int home = ThreadLocalRandom.current().nextInt(stripes);
+        long collected = 0;
+
+        for (int k = 0; k < stripes && collected < n; k++) {
+            int slot = ((home + k) % stripes) * PAD;
+            while (true) {
+                long available = cells.get(slot);
+                if (available <= 0) break;
+                long take = Math.min(available, n - collected);
+                if (cells.compareAndSet(slot, available, available - take)) {
+                    collected += take;
+                    break;
+                }
+            }
+        }
+
+        if (collected == n) return true;
+        if (collected > 0) add(collected);
+        return false;
+    }
+
+    void add(long n) {
+        cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PAD, n);
+    }
+
+    /**
+     * Point-in-time total; only exact when no reservation is in flight.
+     */
+    long sum() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends events as NDJSON to one file. A batch is written with one write and forced
+ * to disk before publish returns, so it is durable before leaving the outbox.
+ */
+@Component
+public class FileOutboxSink implements OutboxSink, AutoCloseable {
+
+    private final Path path;
+    private final ObjectMapper json;
+    // not synchronized: a virtual thread blocked in write/force under a monitor pins its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // opened on first use, so the file only appears when the sink is enabled; guarded by lock
+    private FileChannel channel;
+
+    public FileOutboxSink(@Value("${commerceflow.outbox.file.path:data/outbox/order-events.ndjson}") Path path,
+                          ObjectMapper json) {
+        this.path = path;
+        this.json = json;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(messages.size() * 256);
+        for (OutboxMessage m : messages) {
+            json.writeValue(lines, m);
+            lines.write('\n');
+        }
+
+        lock.lock();
+        try {
+            FileChannel out = channel();
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.service.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for a message broker: a bounded in-process queue that consumers poll.
+ * When consumers fall behind the queue fills up, publish times out and the events stay
+ * in the outbox table until there is room again (backpressure instead of buffering
+ * without limit).
+ */
+@Component
+public class InMemoryBroker implements OutboxSink {
+
+    private final BlockingQueue<OutboxMessage> queue;
+    private final long offerTimeoutMs;
+
+    public InMemoryBroker(@Value("${commerceflow.outbox.memory.capacity:10000}") int capacity,
+                          @Value("${commerceflow.outbox.memory.offer-timeout-ms:100}") long offerTimeoutMs) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) throws InterruptedException {
+        for (OutboxMessage m : messages) {
+            if (!queue.offer(m, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("In-memory broker full (" + queue.size() + " messages queued)");
+            }
+        }
+    }
+
+    /**
+     * Next message, waiting up to timeout; null if none arrived.
+     */
+    public OutboxMessage poll(Duration timeout) throws InterruptedException {
+        return queue.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Everything queued right now.
+     */
+    public List<OutboxMessage> drain() {
+        List<OutboxMessage> messages = new ArrayList<>();
+        queue.drainTo(messages);
+        return messages;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+}
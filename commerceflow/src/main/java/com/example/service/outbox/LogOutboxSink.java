@@ -0,0 +1,27 @@
+package com.example.service.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// One INFO line per event (logger commerceflow.outbox)
+@Component
+public class LogOutboxSink implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger("commerceflow.outbox");
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        if (!log.isInfoEnabled()) return;
+        for (OutboxMessage m : messages) {
+            log.info("{} {}:{} #{} {}", m.type(), m.aggregateType(), m.aggregateId(), m.id(), m.payload());
+        }
+    }
+}
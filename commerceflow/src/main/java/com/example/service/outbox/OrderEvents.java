@@ -0,0 +1,92 @@
+package com.example.service.outbox;
+
+import com.example.dto.OrderDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order change events, appended to the outbox in the transaction of the write (MANDATORY):
+ * an event exists exactly when its change committed. Callers append after they hold the
+ * order's row lock, so ids follow the order's history.
+ */
+@Component
+public class OrderEvents {
+
+    public static final String AGGREGATE = "order";
+    public static final String CREATED = "order.created";
+    public static final String ITEM_CHANGED = "order.item-changed";
+    public static final String DELETED = "order.deleted";
+    // async placement: order.created is sent once the order is CONFIRMED, this one instead of it
+    public static final String REJECTED = "order.rejected";
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events "
+            + "(aggregate_type, aggregate_id, event_type, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    /** Payload of {@link #ITEM_CHANGED}; quantity and lineTotal are the values after the change. */
+    public record ItemChange(String change, Long orderId, Long itemId, Long productId,
+                             Integer quantity, BigDecimal lineTotal) {
+        public static final String ADDED = "ADDED";
+        public static final String UPDATED = "UPDATED";
+        public static final String REMOVED = "REMOVED";
+    }
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper json;
+
+    public OrderEvents(JdbcTemplate jdbc, ObjectMapper json) {
+        this.jdbc = jdbc;
+        this.json = json;
+    }
+
+    /**
+     * One event per order, carrying the order as returned by the API; a single JDBC batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Collection<OrderDTO> orders) {
+        if (orders.isEmpty()) return;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(orders.size());
+        for (OrderDTO order : orders) {
+            rows.add(new Object[]{AGGREGATE, order.getId(), CREATED, write(order), now});
+        }
+        jdbc.batchUpdate(INSERT_SQL, rows);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemChanged(ItemChange change) {
+        append(change.orderId(), ITEM_CHANGED, change);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleted(Long orderId) {
+        append(orderId, DELETED, Map.of("orderId", orderId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void rejected(Long orderId, String reason) {
+        append(orderId, REJECTED, Map.of("orderId", orderId, "reason", reason));
+    }
+
+    private void append(Long orderId, String type, Object payload) {
+        jdbc.update(INSERT_SQL, AGGREGATE, orderId, type, write(payload), new Timestamp(System.currentTimeMillis()));
+    }
+
+    private String write(Object payload) {
+        try {
+            return json.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Event payload not serializable", ex);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.service.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+/**
+ * An outbox event as handed to the sinks. The id is unique and increasing per aggregate;
+ * delivery is at-least-once, so consumers dedupe on it.
+ */
+public record OutboxMessage(long id,
+                            String aggregateType,
+                            long aggregateId,
+                            String type,
+                            @JsonRawValue String payload,
+                            Instant createdAt) {
+}
@@ -0,0 +1,189 @@
+package com.example.service.outbox;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to the enabled sinks (commerceflow.outbox.sinks), a batch per transaction:
+ * claim the oldest events with FOR UPDATE SKIP LOCKED (relays on other instances take other
+ * rows), hand them to every sink, delete them, commit.
+ *
+ * Ordering per order: an order's events are only published up to the first of its pending
+ * events this relay did not claim (locked by another relay); the rest wait for a later
+ * batch. Delivery is at-least-once, a failed sink rolls the batch back.
+ *
+ * Backpressure: a run stops at the first failed batch, and each run is capped at
+ * max-batches-per-run; events the sinks cannot take yet wait in the table, not in memory.
+ *
+ * Metrics: commerceflow.outbox.lag (created -> published), commerceflow.outbox.published /
+ * .failures per sink, and the gauges commerceflow.outbox.backlog and
+ * commerceflow.outbox.oldest.age (as of the last run).
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String CLAIM_SQL = "SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at "
+            + "FROM outbox_events ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private final TransactionTemplate tx;
+    private final MeterRegistry meters;
+    private final List<OutboxSink> sinks;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final AtomicLong backlog = new AtomicLong();
+    // epoch millis of the oldest pending event, 0 when none
+    private final AtomicLong oldestCreatedAt = new AtomicLong();
+
+    public OutboxRelay(JdbcTemplate jdbc,
+                       PlatformTransactionManager txManager,
+                       MeterRegistry meters,
+                       List<OutboxSink> allSinks,
+                       @Value("${commerceflow.outbox.sinks:log}") Set<String> enabledSinks,
+                       @Value("${commerceflow.outbox.batch-size:500}") int batchSize,
+                       @Value("${commerceflow.outbox.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.jdbc = jdbc;
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+        this.tx = new TransactionTemplate(txManager);
+        this.meters = meters;
+        this.sinks = allSinks.stream().filter(sink -> enabledSinks.contains(sink.name())).toList();
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        Gauge.builder("commerceflow.outbox.backlog", backlog, AtomicLong::get)
+                .description("Outbox events waiting to be published")
+                .register(meters);
+        Gauge.builder("commerceflow.outbox.oldest.age", oldestCreatedAt, OutboxRelay::ageSeconds)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(meters);
+    }
+
+    /**
+     * Publish pending events; returns how many were published.
+     */
+    @Scheduled(fixedDelayString = "${commerceflow.outbox.relay-interval-ms:200}")
+    public int relay() {
+        int published = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Batch result;
+            try {
+                result = tx.execute(status -> relayBatch());
+            } catch (RuntimeException ex) {
+                log.warn("Outbox relay batch failed, retrying with the next run: {}", ex.toString());
+                break;
+            }
+            published += result.published();
+            if (result.claimed() == 0) {
+                if (published == 0) {
+                    backlog.set(0);
+                    oldestCreatedAt.set(0);
+                    return 0;
+                }
+                break;
+            }
+            // a short batch drained the table; a held-back batch would only claim the same rows again
+            if (result.claimed() < batchSize || result.published() == 0) break;
+        }
+        refreshBacklog();
+        return published;
+    }
+
+    private Batch relayBatch() {
+        List<OutboxMessage> claimed = jdbc.query(CLAIM_SQL, (rs, n) -> new OutboxMessage(
+                rs.getLong("id"),
+                rs.getString("aggregate_type"),
+                rs.getLong("aggregate_id"),
+                rs.getString("event_type"),
+                rs.getString("payload"),
+                rs.getTimestamp("created_at").toInstant()), batchSize);
+        if (claimed.isEmpty()) return new Batch(0, 0);
+
+        List<OutboxMessage> publishable = inOrderPrefix(claimed);
+        if (publishable.isEmpty()) return new Batch(claimed.size(), 0);
+
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.publish(publishable);
+            } catch (Exception ex) {
+                meters.counter("commerceflow.outbox.failures", "sink", sink.name()).increment();
+                throw new IllegalStateException("Outbox sink '" + sink.name() + "' failed", ex);
+            }
+            meters.counter("commerceflow.outbox.published", "sink", sink.name()).increment(publishable.size());
+        }
+
+        named.update("DELETE FROM outbox_events WHERE id IN (:ids)",
+                Map.of("ids", publishable.stream().map(OutboxMessage::id).toList()));
+
+        Instant now = Instant.now();
+        Timer lag = meters.timer("commerceflow.outbox.lag");
+        publishable.forEach(m -> lag.record(Duration.between(m.createdAt(), now)));
+        return new Batch(claimed.size(), publishable.size());
+    }
+
+    /**
+     * The claimed events that can go out now: for each aggregate, its pending events in id
+     * order up to the first one that is not in this batch (held by another relay).
+     */
+    private List<OutboxMessage> inOrderPrefix(List<OutboxMessage> claimed) {
+        Set<Long> claimedIds = new HashSet<>();
+        Set<Long> aggregateIds = new HashSet<>();
+        for (OutboxMessage m : claimed) {
+            claimedIds.add(m.id());
+            aggregateIds.add(m.aggregateId());
+        }
+
+        // all pending events of these aggregates, including rows locked by other relays
+        Map<String, Boolean> blocked = new HashMap<>();
+        Set<Long> allowed = new HashSet<>();
+        named.query("SELECT id, aggregate_type, aggregate_id FROM outbox_events WHERE aggregate_id IN (:ids) ORDER BY id",
+                Map.of("ids", aggregateIds), rs -> {
+                    String aggregate = rs.getString("aggregate_type") + ":" + rs.getLong("aggregate_id");
+                    long id = rs.getLong("id");
+                    if (blocked.getOrDefault(aggregate, false)) return;
+                    if (claimedIds.contains(id)) {
+                        allowed.add(id);
+                    } else {
+                        blocked.put(aggregate, true);
+                    }
+                });
+
+        return claimed.stream().filter(m -> allowed.contains(m.id())).toList();
+    }
+
+    private void refreshBacklog() {
+        jdbc.query("SELECT COUNT(*) AS pending, MIN(created_at) AS oldest FROM outbox_events", rs -> {
+            backlog.set(rs.getLong("pending"));
+            Timestamp oldest = rs.getTimestamp("oldest");
+            oldestCreatedAt.set(oldest == null ? 0 : oldest.getTime());
+        });
+    }
+
+    private static double ageSeconds(AtomicLong oldestCreatedAt) {
+        long oldest = oldestCreatedAt.get();
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    private record Batch(int claimed, int published) {
+    }
+}
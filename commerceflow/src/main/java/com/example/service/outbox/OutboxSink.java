@@ -0,0 +1,17 @@
+package com.example.service.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of outbox events. {@link #publish} must not return before the batch is
+ * safely handed over: the relay deletes the events from the outbox afterwards. Throwing
+ * fails the whole batch, which is retried later (possibly re-delivering part of it).
+ */
+public interface OutboxSink {
+
+    /** Name used in commerceflow.outbox.sinks and in metric tags. */
+    String name();
+
+    /** Messages in id order, never empty. */
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
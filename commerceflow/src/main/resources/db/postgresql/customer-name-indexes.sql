@@ -0,0 +1,12 @@
+-- Customer name search: lower(first_name|last_name) LIKE '%term%'.
+-- Runs on every startup after Hibernate's schema update, so every statement is idempotent.
+-- Needs pg_trgm, installed once outside the application (manual/pg-trgm-extension.sql); skipped until then.
+
+DO 'BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = ''pg_trgm'') THEN
+        CREATE INDEX IF NOT EXISTS idx_customers_first_name_trgm ON customers USING gin (lower(first_name) gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_customers_last_name_trgm ON customers USING gin (lower(last_name) gin_trgm_ops);
+    ELSE
+        RAISE NOTICE ''pg_trgm is not installed, skipping the customer name trigram indexes'';
+    END IF;
+END';
@@ -0,0 +1,10 @@
+-- customer_order_summaries is maintained by the order writes; this backfills orders created
+-- before it existed (or while it was missing). Runs on every startup after Hibernate's schema
+-- update, so every statement is idempotent.
+
+INSERT INTO customer_order_summaries (order_id, customer_id, order_date, status, total, item_count)
+SELECT o.id, o.customer_id, o.order_date, o.status, o.total,
+       (SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id)
+FROM orders o
+WHERE NOT EXISTS (SELECT 1 FROM customer_order_summaries s WHERE s.order_id = o.id)
+ON CONFLICT (order_id) DO NOTHING;
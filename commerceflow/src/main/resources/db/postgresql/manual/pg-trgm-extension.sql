@@ -0,0 +1,7 @@
+-- One-time setup, run by a role allowed to create extensions (superuser or CREATE on the database):
+--   psql -d commerceflow -f pg-trgm-extension.sql
+-- Not part of spring.sql.init: the application role usually lacks that privilege. Until it has run,
+-- the trigram indexes in product-catalog-indexes.sql / customer-name-indexes.sql are skipped and
+-- name substring searches fall back to a sequential scan; they are created on the next startup after.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,16 @@
+-- orders / order_items moved from IDENTITY to pooled sequences (allocationSize = 50).
+-- Runs on every startup after Hibernate's schema update, so every statement is idempotent.
+
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq START WITH 1 INCREMENT BY 50;
+
+-- Hibernate now supplies the ids, so the old identity defaults are dropped.
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- Never hand out an id that already exists. GREATEST keeps the sequence from moving
+-- backwards when another node has already reserved a block.
+SELECT setval('orders_seq',
+              GREATEST((SELECT last_value FROM orders_seq), (SELECT COALESCE(MAX(id), 0) FROM orders)));
+SELECT setval('order_items_seq',
+              GREATEST((SELECT last_value FROM order_items_seq), (SELECT COALESCE(MAX(id), 0) FROM order_items)));
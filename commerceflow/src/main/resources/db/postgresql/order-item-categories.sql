@@ -0,0 +1,9 @@
+-- Fills in order_items.category_id for lines written before the column existed. Their sale-time
+-- category was never recorded, so the product's current one is the best available. Runs on every
+-- startup after Hibernate's schema update and only touches lines that are still empty.
+
+UPDATE order_items i
+SET category_id = p.category_id
+FROM products p
+WHERE p.id = i.product_id
+  AND i.category_id IS NULL;
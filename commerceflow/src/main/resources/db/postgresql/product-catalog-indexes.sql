@@ -0,0 +1,16 @@
+-- Catalog filters that a plain B-tree index (declared on the Product entity) cannot serve.
+-- Runs on every startup after Hibernate's schema update, so every statement is idempotent.
+
+-- name substring search: lower(name) LIKE '%term%'. Needs pg_trgm, installed once outside the
+-- application (manual/pg-trgm-extension.sql); skipped until then. The DO body is a quoted string so
+-- the script splitter does not cut it at its semicolons.
+DO 'BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = ''pg_trgm'') THEN
+        CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+    ELSE
+        RAISE NOTICE ''pg_trgm is not installed, skipping idx_products_name_trgm'';
+    END IF;
+END';
+
+-- inStock=true walks ids of products that still have stock
+CREATE INDEX IF NOT EXISTS idx_products_in_stock ON products (id) WHERE quantity > 0;
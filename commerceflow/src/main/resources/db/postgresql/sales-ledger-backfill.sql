@@ -0,0 +1,10 @@
+-- Seeds the sales ledger with every existing order line the first time the analytics tables exist;
+-- the compactor folds it into sales_rollups. Runs on every startup after Hibernate's schema update,
+-- so it only inserts while both the ledger and the rollups are still empty.
+
+INSERT INTO sales_ledger (order_date, product_id, category_id, customer_id, units, revenue)
+SELECT o.order_date, i.product_id, i.category_id, o.customer_id, i.quantity, i.line_total
+FROM order_items i
+JOIN orders o ON o.id = i.order_id
+WHERE NOT EXISTS (SELECT 1 FROM sales_rollups)
+  AND NOT EXISTS (SELECT 1 FROM sales_ledger);
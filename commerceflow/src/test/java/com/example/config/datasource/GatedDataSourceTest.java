@@ -0,0 +1,67 @@
+package com.example.config.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GatedDataSourceTest {
+
+    private static JdbcDataSource h2() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:gate;DB_CLOSE_DELAY=-1");
+        return ds;
+    }
+
+    @Test
+    void waiterGetsTheConnectionReturnedByAnotherCaller() throws Exception {
+        GatedDataSource gate = new GatedDataSource(h2(), 1, 10, 5_000);
+        Connection held = gate.getConnection();
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try (Connection c = gate.getConnection()) {
+                return c.isValid(1);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        Thread.sleep(100);
+        assertThat(gate.getWaiting()).isEqualTo(1);
+        held.close();
+        held.close();   // a second close must not hand out a second permit
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(gate.getWaiting()).isZero();
+    }
+
+    @Test
+    void waitingTimesOut() throws Exception {
+        GatedDataSource gate = new GatedDataSource(h2(), 1, 10, 50);
+
+        try (Connection ignored = gate.getConnection()) {
+            assertThatThrownBy(gate::getConnection)
+                    .isInstanceOf(SQLTransientConnectionException.class)
+                    .hasMessageContaining("within 50 ms");
+        }
+    }
+
+    @Test
+    void queueBeyondMaxWaitersIsRejectedImmediately() throws Exception {
+        GatedDataSource gate = new GatedDataSource(h2(), 1, 0, 5_000);
+
+        try (Connection ignored = gate.getConnection()) {
+            long start = System.nanoTime();
+            assertThatThrownBy(gate::getConnection)
+                    .isInstanceOf(SQLTransientConnectionException.class)
+                    .hasMessageContaining("gate full");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.config.metrics;
+
+import com.example.entity.Customer;
+import com.example.repository.CustomerRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * One request through the full stack shows up in every layer of the instrumentation
+ * and in the Prometheus scrape.
+ */
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=prometheus")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsInstrumentationTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meters;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Test
+    void requestIsMeasuredAndScraped() throws Exception {
+        Customer customer = new Customer();
+        customer.setFirstName("Metrics");
+        Long id = customerRepo.save(customer).getId();
+
+        mvc.perform(get("/api/customers/{id}", id)).andExpect(status().isOk());
+
+        DistributionSummary statements = meters.get("commerceflow.http.sql.statements")
+                .tags("method", "GET", "uri", "/api/customers/{id}")
+                .summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isPositive();
+
+        assertThat(meters.get("commerceflow.service")
+                .tags("class", "CustomerService", "method", "getById", "exception", "none")
+                .timer().count()).isEqualTo(1);
+        assertThat(meters.get("commerceflow.sql").tags("type", "select").timer().count()).isPositive();
+        assertThat(meters.find("hikaricp.connections.acquire").timer()).isNotNull();
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "commerceflow_http_sql_statements_count{method=\"GET\",uri=\"/api/customers/{id}\"}")));
+    }
+}
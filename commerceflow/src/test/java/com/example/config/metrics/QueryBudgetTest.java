@@ -0,0 +1,125 @@
+package com.example.config.metrics;
+
+import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderItemCreateDTO;
+import com.example.entity.Category;
+import com.example.fixture.CatalogFixture;
+import com.example.service.OrderService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.config.metrics.QueryBudgets.withinQueryBudget;
+import static com.example.fixture.CatalogFixture.line;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read endpoints stay within their {@link QueryBudget} with enough rows (several orders,
+ * items, products and customers) that any per-row lazy load would blow the budget.
+ */
+@SpringBootTest(properties = "commerceflow.sql.budget.CustomerController.getOne=0")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+
+    private static final int PRODUCTS = 12;
+    private static final int CUSTOMERS = 6;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    private Long categoryId;
+    private final List<Long> products = new ArrayList<>();
+    private final List<Long> customers = new ArrayList<>();
+    private final List<Long> orders = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        Category category = fixture.category("query-budget");
+        categoryId = category.getId();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(fixture.product(category, "BUDGET-" + i, "3.00", 1_000));
+        }
+
+        for (int c = 0; c < CUSTOMERS; c++) {
+            Long customerId = fixture.customer("Budget" + c);
+            customers.add(customerId);
+
+            for (int o = 0; o < 2; o++) {
+                List<OrderItemCreateDTO> lines = new ArrayList<>();
+                for (int i = 0; i < 6; i++) {
+                    lines.add(line(products.get((c + o + i) % PRODUCTS), 1));
+                }
+                orders.add(orderService.createOrder(new OrderCreateDTO(customerId, lines)).getId());
+            }
+        }
+    }
+
+    @Test
+    void readEndpointsStayWithinBudget() throws Exception {
+        Long orderId = orders.get(0);
+
+        mvc.perform(get("/api/orders/{id}", orderId)).andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/orders").param("customerId", customers.get(0).toString()).param("expand", "items"))
+                .andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/orders").param("status", "NEW").param("size", "5"))
+                .andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/orders/{id}/items", orderId)).andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/products")).andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/products").param("categoryId", categoryId.toString()).param("size", "5"))
+                .andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/products/{id}", products.get(0))).andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/customers")).andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/customers").param("page", "0").param("size", "3"))
+                .andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/customers/{id}/orders", customers.get(0))).andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/analytics/sales/products").param("from", "2024-01-01").param("to", "2024-12-31"))
+                .andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/analytics/sales/categories/{id}", categoryId).param("from", "2024-01-01").param("to", "2024-12-31"))
+                .andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/categories")).andExpect(status().isOk()).andExpect(withinQueryBudget());
+        mvc.perform(get("/api/categories/{id}", categoryId)).andExpect(status().isOk()).andExpect(withinQueryBudget());
+    }
+
+    @Test
+    void createOrderStaysWithinBudget() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < PRODUCTS; i++) {
+            if (i > 0) lines.append(',');
+            lines.append("{\"productId\":").append(products.get(i)).append(",\"quantity\":1}");
+        }
+
+        mvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\":" + customers.get(0) + ",\"items\":[" + lines + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    @Test
+    void requestOverBudgetFails() {
+        // budget overridden to 0 for this endpoint above
+        assertThatThrownBy(() -> mvc.perform(get("/api/customers/{id}", customers.get(0))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("GET /api/customers/{id}")
+                .hasMessageContaining("query budget of 0");
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.config.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc assertions on the per-request statement count recorded by {@link RequestMetricsFilter}.
+ */
+final class QueryBudgets {
+
+    private QueryBudgets() {
+    }
+
+    /**
+     * The request stayed within the {@link QueryBudget} of its endpoint.
+     */
+    static ResultMatcher withinQueryBudget() {
+        return result -> {
+            Integer budget = (Integer) result.getRequest().getAttribute(RequestMetricsFilter.BUDGET_ATTRIBUTE);
+            assertThat(budget).as("query budget of %s", result.getRequest().getRequestURI()).isNotNull();
+            assertThat(statements(result.getRequest()))
+                    .as("SQL statements for %s", result.getRequest().getRequestURI())
+                    .isLessThanOrEqualTo(budget);
+        };
+    }
+
+    /**
+     * The request executed at most {@code max} statements (tighter than the endpoint budget).
+     */
+    static ResultMatcher statementsAtMost(int max) {
+        return result -> assertThat(statements(result.getRequest()))
+                .as("SQL statements for %s", result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(max);
+    }
+
+    private static int statements(HttpServletRequest request) {
+        Object statements = request.getAttribute(RequestMetricsFilter.STATEMENTS_ATTRIBUTE);
+        assertThat(statements).as("statement count (is RequestMetricsFilter applied?)").isNotNull();
+        return (Integer) statements;
+    }
+}
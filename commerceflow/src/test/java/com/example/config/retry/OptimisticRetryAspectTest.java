@@ -0,0 +1,127 @@
+package com.example.config.retry;
+
+import com.example.entity.Customer;
+import com.example.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A write based on a stale read is rejected by {@code @Version}, and {@link RetryOnConflict}
+ * re-runs the whole transaction until it wins or the attempts run out.
+ */
+@SpringBootTest
+class OptimisticRetryAspectTest {
+
+    @Autowired
+    private Renamer renamer;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private MeterRegistry meters;
+
+    @BeforeEach
+    void resetAttempts() {
+        renamer.reset();
+    }
+
+    @Test
+    void conflictingWriteIsRetriedAndWins() {
+        Long id = customer("Retry");
+        double conflictsBefore = count("commerceflow.optimistic.conflicts");
+        double retriesBefore = count("commerceflow.optimistic.retries");
+
+        renamer.rename(id, "Winner", 1);
+
+        assertThat(renamer.attempts()).isEqualTo(2);
+        assertThat(customerRepo.findById(id).orElseThrow().getFirstName()).isEqualTo("Winner");
+        assertThat(count("commerceflow.optimistic.conflicts")).isEqualTo(conflictsBefore + 1);
+        assertThat(count("commerceflow.optimistic.retries")).isEqualTo(retriesBefore + 1);
+    }
+
+    @Test
+    void conflictIsRethrownOnceAttemptsAreUsedUp() {
+        Long id = customer("Exhausted");
+        double failuresBefore = count("commerceflow.optimistic.failures");
+
+        assertThatThrownBy(() -> renamer.rename(id, "Loser", Integer.MAX_VALUE))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(renamer.attempts()).isEqualTo(3);
+        assertThat(count("commerceflow.optimistic.failures")).isEqualTo(failuresBefore + 1);
+        assertThat(customerRepo.findById(id).orElseThrow().getFirstName()).isEqualTo("interloper-3");
+    }
+
+    private Long customer(String name) {
+        Customer c = new Customer();
+        c.setFirstName(name);
+        return customerRepo.save(c).getId();
+    }
+
+    private double count(String metric) {
+        var counter = meters.find(metric).tag("method", "Renamer.rename").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        Renamer renamer(CustomerRepository repo, PlatformTransactionManager txManager) {
+            return new Renamer(repo, txManager);
+        }
+    }
+
+    /**
+     * Reads a customer, lets a concurrent transaction update it for the first
+     * {@code interruptions} attempts, then writes its own change.
+     */
+    static class Renamer {
+
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final CustomerRepository repo;
+        private final TransactionTemplate concurrent;
+
+        Renamer(CustomerRepository repo, PlatformTransactionManager txManager) {
+            this.repo = repo;
+            this.concurrent = new TransactionTemplate(txManager);
+            this.concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+
+        // accessed through the proxy, so fields are only touched via public methods
+        public int attempts() {
+            return attempts.get();
+        }
+
+        public void reset() {
+            attempts.set(0);
+        }
+
+        @RetryOnConflict(backoffMillis = 1)
+        @Transactional
+        public void rename(Long id, String name, int interruptions) {
+            Customer c = repo.findById(id).orElseThrow();
+
+            int attempt = attempts.incrementAndGet();
+            if (attempt <= interruptions) {
+                concurrent.executeWithoutResult(s -> repo.findById(id).orElseThrow().setFirstName("interloper-" + attempt));
+            }
+            c.setFirstName(name);
+        }
+    }
+}
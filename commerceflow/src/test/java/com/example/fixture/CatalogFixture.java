@@ -0,0 +1,80 @@
+package com.example.fixture;
+
+import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderItemCreateDTO;
+import com.example.entity.Category;
+import com.example.entity.Customer;
+import com.example.entity.Product;
+import com.example.repository.CategoryRepository;
+import com.example.repository.CustomerRepository;
+import com.example.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seed data shared by the integration tests: categories, products and customers saved
+ * through the repositories, and the order DTOs placed against them. A test-only bean,
+ * picked up by the application's component scan.
+ */
+@Component
+public class CatalogFixture {
+
+    private final CategoryRepository categoryRepo;
+    private final ProductRepository productRepo;
+    private final CustomerRepository customerRepo;
+
+    public CatalogFixture(CategoryRepository categoryRepo,
+                          ProductRepository productRepo,
+                          CustomerRepository customerRepo) {
+        this.categoryRepo = categoryRepo;
+        this.productRepo = productRepo;
+        this.customerRepo = customerRepo;
+    }
+
+    public Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return categoryRepo.save(category);
+    }
+
+    public Long product(Category category, String sku, String price, int quantity) {
+        return productRepo.save(Product.builder()
+                .sku(sku)
+                .name("Product " + sku)
+                .category(category)
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .build()).getId();
+    }
+
+    /**
+     * A product with a random SKU, for tests that never look it up by SKU.
+     */
+    public Long product(Category category, String price, int quantity) {
+        return product(category, category.getName() + "-" + UUID.randomUUID(), price, quantity);
+    }
+
+    public Long customer(String firstName) {
+        Customer customer = new Customer();
+        customer.setFirstName(firstName);
+        return customerRepo.save(customer).getId();
+    }
+
+    public int stockOf(Long productId) {
+        return productRepo.findById(productId).orElseThrow().getQuantity();
+    }
+
+    public static OrderItemCreateDTO line(Long productId, int quantity) {
+        OrderItemCreateDTO line = new OrderItemCreateDTO();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    public static OrderCreateDTO order(Long customerId, OrderItemCreateDTO... lines) {
+        return new OrderCreateDTO(customerId, List.of(lines));
+    }
+}
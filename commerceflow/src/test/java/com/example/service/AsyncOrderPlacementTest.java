@@ -0,0 +1,276 @@
+package com.example.service;
+
+import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderDTO;
+import com.example.dto.OrderStatusDTO;
+import com.example.entity.Order;
+import com.example.fixture.CatalogFixture;
+import com.example.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.fixture.CatalogFixture.line;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/orders with Prefer: respond-async: 202 with a PENDING order, placed by the
+ * workers as CONFIRMED, or REJECTED on its own when it cannot be placed. Transient failures
+ * are retried a bounded number of times, and deleting an order removes its stored request.
+ */
+@SpringBootTest(properties = {
+        "commerceflow.orders.async.max-attempts=3",
+        "commerceflow.orders.async.retry-backoff-ms=10"
+})
+@AutoConfigureMockMvc
+class AsyncOrderPlacementTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private AsyncOrderService async;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @MockitoSpyBean
+    private OrderRepository orderRepo;
+
+    private Long productId;
+    private Long customerId;
+
+    @BeforeEach
+    void seed() {
+        productId = fixture.product(fixture.category("async"), "6.00", 10);
+        customerId = fixture.customer("Patient");
+    }
+
+    @Test
+    void acceptedOrderIsConfirmed() throws Exception {
+        String body = json.writeValueAsString(order(3));
+        String key = UUID.randomUUID().toString();
+
+        MvcResult accepted = mvc.perform(post("/api/orders")
+                        .header("Prefer", "respond-async")
+                        .header(IdempotencyService.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.status").value(Order.STATUS_PENDING))
+                .andReturn();
+        Long orderId = json.readValue(accepted.getResponse().getContentAsString(), OrderStatusDTO.class).getOrderId();
+        assertThat(accepted.getResponse().getHeader("Location")).isEqualTo("/api/orders/" + orderId + "/status");
+
+        // a retry with the same key is not queued again
+        mvc.perform(post("/api/orders")
+                        .header("Prefer", "respond-async")
+                        .header(IdempotencyService.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.orderId").value(orderId));
+
+        assertThat(awaitPlaced(orderId).getStatus()).isEqualTo(Order.STATUS_CONFIRMED);
+        mvc.perform(get("/api/orders/{id}/status", orderId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(Order.STATUS_CONFIRMED));
+
+        OrderDTO order = orderService.getOrder(orderId);
+        assertThat(order.getItems()).hasSize(1);
+        assertThat(order.getTotal()).isEqualByComparingTo("18.00");
+        assertThat(stock()).isEqualTo(7);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM order_requests WHERE order_id = ?", Integer.class, orderId))
+                .isZero();
+    }
+
+    @Test
+    void orderThatCannotBePlacedIsRejectedAlone() {
+        // queue three orders while the workers are down, one more than the stock allows;
+        // on start they are reloaded from order_requests and placed as one batch
+        async.stop();
+        Long first;
+        Long tooBig;
+        Long last;
+        try {
+            first = async.accept(order(2)).getOrderId();
+            tooBig = async.accept(order(9)).getOrderId();
+            last = async.accept(order(3)).getOrderId();
+            assertThat(async.status(first).getStatus()).isEqualTo(Order.STATUS_PENDING);
+        } finally {
+            async.start();
+        }
+
+        assertThat(awaitPlaced(first).getStatus()).isEqualTo(Order.STATUS_CONFIRMED);
+        assertThat(awaitPlaced(last).getStatus()).isEqualTo(Order.STATUS_CONFIRMED);
+        OrderStatusDTO rejected = awaitPlaced(tooBig);
+        assertThat(rejected.getStatus()).isEqualTo(Order.STATUS_REJECTED);
+        assertThat(rejected.getReason()).isNotBlank();
+        assertThat(stock()).isEqualTo(5);
+        assertThat(summary(tooBig)).containsEntry("STATUS", Order.STATUS_REJECTED).containsEntry("ITEM_COUNT", 0);
+    }
+
+    @Test
+    void pendingOrderIsPlacedAfterRestartWithHistoryBackfill() {
+        async.stop();
+        Long orderId;
+        try {
+            orderId = async.accept(order(2)).getOrderId();
+            assertThat(summary(orderId)).containsEntry("STATUS", Order.STATUS_PENDING);
+
+            // the Postgres startup backfill runs before the workers reload PENDING orders
+            // (H2 has no ON CONFLICT for INSERT ... SELECT; the NOT EXISTS guard does the same here)
+            jdbc.update(backfill().replace("ON CONFLICT (order_id) DO NOTHING", ""));
+        } finally {
+            async.start();
+        }
+
+        assertThat(awaitPlaced(orderId).getStatus()).isEqualTo(Order.STATUS_CONFIRMED);
+        Map<String, Object> summary = summary(orderId);
+        assertThat(summary).containsEntry("STATUS", Order.STATUS_CONFIRMED).containsEntry("ITEM_COUNT", 1);
+        assertThat((BigDecimal) summary.get("TOTAL")).isEqualByComparingTo("12.00");
+    }
+
+    @Test
+    void invalidOrderIsRefusedSynchronously() throws Exception {
+        mvc.perform(post("/api/orders")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.writeValueAsString(new OrderCreateDTO(-1L, order(1).getItems()))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void transientFailureIsRetried() {
+        failLocks(2);
+
+        Long orderId = async.accept(order(4)).getOrderId();
+
+        assertThat(awaitPlaced(orderId).getStatus()).isEqualTo(Order.STATUS_CONFIRMED);
+        assertThat(stock()).isEqualTo(6);
+    }
+
+    @Test
+    void orderThatKeepsFailingIsRejectedAfterMaxAttempts() {
+        failLocks(Integer.MAX_VALUE);
+
+        Long orderId = async.accept(order(4)).getOrderId();
+
+        OrderStatusDTO rejected = awaitPlaced(orderId);
+        assertThat(rejected.getStatus()).isEqualTo(Order.STATUS_REJECTED);
+        assertThat(rejected.getReason()).isEqualTo("Order could not be placed after 3 attempts");
+        assertThat(stock()).isEqualTo(10);
+    }
+
+    @Test
+    void deletingPendingOrdersRemovesTheirRequests() {
+        Long leaving = fixture.customer("Leaving");
+        async.stop();
+        try {
+            Long deleted = async.accept(order(1)).getOrderId();
+            async.accept(CatalogFixture.order(leaving, line(productId, 1)));
+            async.accept(CatalogFixture.order(leaving, line(productId, 2)));
+
+            orderService.deleteOrder(deleted);
+            customerService.delete(leaving);
+
+            assertThat(jdbc.queryForObject(
+                    "SELECT COUNT(*) FROM order_requests r LEFT JOIN orders o ON o.id = r.order_id WHERE o.id IS NULL",
+                    Integer.class)).isZero();
+        } finally {
+            async.start();
+        }
+        assertThat(stock()).isEqualTo(10);
+    }
+
+    // the first `times` attempts to lock a batch fail as if the database timed out
+    private void failLocks(int times) {
+        AtomicInteger remaining = new AtomicInteger(times);
+        // the repository is a JDK proxy: the spy's default answer delegates to it
+        Answer<?> real = mockingDetails(orderRepo).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            if (remaining.getAndDecrement() > 0) {
+                throw new QueryTimeoutException("lock timeout");
+            }
+            return real.answer(invocation);
+        }).when(orderRepo).lockByIdInAndStatus(any(), any());
+    }
+
+    private OrderStatusDTO awaitPlaced(Long orderId) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        OrderStatusDTO status = async.status(orderId);
+        while (Order.STATUS_PENDING.equals(status.getStatus()) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            status = async.status(orderId);
+        }
+        return status;
+    }
+
+    private static String backfill() {
+        try {
+            String script = new ClassPathResource("db/postgresql/customer-order-history.sql")
+                    .getContentAsString(StandardCharsets.UTF_8);
+            return script.substring(script.indexOf("INSERT"), script.lastIndexOf(';'));
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Map<String, Object> summary(Long orderId) {
+        return jdbc.queryForMap("SELECT status, total, item_count FROM customer_order_summaries WHERE order_id = ?",
+                orderId);
+    }
+
+    private int stock() {
+        return fixture.stockOf(productId);
+    }
+
+    private OrderCreateDTO order(int quantity) {
+        return CatalogFixture.order(customerId, line(productId, quantity));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.service;
+
+import com.example.dto.CategoryDTO;
+import com.example.fixture.CatalogFixture;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Category name search on the unpaged list: case-insensitive containment, with LIKE
+ * wildcards in the term matched literally.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CategoryNameSearchTest {
+
+    private static final Sort BY_NAME = Sort.by("name");
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @BeforeAll
+    void seed() {
+        fixture.category("Zqx 50% Off");
+        fixture.category("Zqx 500 Club");
+        fixture.category("zqx_kitchen");
+        fixture.category("ZqxAkitchen");
+    }
+
+    @Test
+    void matchesCaseInsensitively() {
+        assertThat(names("zqx")).containsExactlyInAnyOrder("Zqx 50% Off", "Zqx 500 Club", "zqx_kitchen", "ZqxAkitchen");
+        assertThat(names(" ZQX 5 ")).containsExactlyInAnyOrder("Zqx 50% Off", "Zqx 500 Club");
+    }
+
+    @Test
+    void wildcardsInTheTermAreLiteral() {
+        assertThat(names("zqx 50%")).containsExactly("Zqx 50% Off");
+        assertThat(names("zqx_")).containsExactly("zqx_kitchen");
+        assertThat(names("zqx\\")).isEmpty();
+    }
+
+    private List<String> names(String term) {
+        return categoryService.getAllWithoutPaging(term, BY_NAME).stream()
+                .map(CategoryDTO::getName)
+                .toList();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.service;
+
+import com.example.dto.CustomerCreateDTO;
+import com.example.dto.CustomerDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Customer name search in the database: page totals count only the matching customers,
+ * and slice mode pages without running the COUNT query.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerNameSearchTest {
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Statistics stats;
+    private final List<Long> matching = new ArrayList<>();
+    private Long wildcard;
+
+    @BeforeAll
+    void seed() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+
+        // "qwzann" matches the first name, the last name, and either case
+        matching.add(customer("Qwzanna", "Smith"));
+        matching.add(customer("Bob", "Qwzannason"));
+        matching.add(customer("QWZANN", null));
+        customer("Carl", "Other");
+        wildcard = customer("50%_qwz", null);
+    }
+
+    @Test
+    void pageTotalsCountOnlyMatchingCustomers() {
+        stats.clear();
+        Page<CustomerDTO> first = customerService.getAllPaged("qwzann", 0, 2, BY_ID);
+
+        assertThat(first.getContent()).extracting(CustomerDTO::getId).containsExactlyElementsOf(matching.subList(0, 2));
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(first.getTotalPages()).isEqualTo(2);
+        assertThat(countQueries()).hasSize(1);
+
+        Page<CustomerDTO> second = customerService.getAllPaged("qwzann", 1, 2, BY_ID);
+        assertThat(second.getContent()).extracting(CustomerDTO::getId).containsExactly(matching.get(2));
+        assertThat(second.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void sliceModeRunsNoCount() {
+        stats.clear();
+        Slice<CustomerDTO> first = customerService.getSlice("qwzann", 0, 2, BY_ID);
+        Slice<CustomerDTO> second = customerService.getSlice("qwzann", 1, 2, BY_ID);
+        Slice<CustomerDTO> unfiltered = customerService.getSlice(null, 0, 2, BY_ID);
+
+        assertThat(first.getContent()).extracting(CustomerDTO::getId).containsExactlyElementsOf(matching.subList(0, 2));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(CustomerDTO::getId).containsExactly(matching.get(2));
+        assertThat(second.hasNext()).isFalse();
+        assertThat(unfiltered.getContent()).hasSize(2);
+        assertThat(countQueries()).isEmpty();
+    }
+
+    @Test
+    void wildcardsInTheTermMatchLiterally() {
+        assertThat(customerService.getAllWithoutPaging("0%_q", BY_ID))
+                .extracting(CustomerDTO::getId)
+                .containsExactly(wildcard);
+    }
+
+    private List<String> countQueries() {
+        return List.of(stats.getQueries()).stream()
+                .filter(q -> q.toLowerCase().contains("count("))
+                .toList();
+    }
+
+    private Long customer(String firstName, String lastName) {
+        CustomerCreateDTO dto = new CustomerCreateDTO();
+        dto.setFirstName(firstName);
+        dto.setLastName(lastName);
+        return customerService.create(dto).getId();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.service;
+
+import com.example.dto.CursorPage;
+import com.example.dto.CustomerOrderSummaryDTO;
+import com.example.dto.OrderDTO;
+import com.example.dto.OrderItemDTO;
+import com.example.dto.OrderItemUpdateDTO;
+import com.example.exception.ResourceNotFoundException;
+import com.example.fixture.CatalogFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.fixture.CatalogFixture.line;
+import static com.example.fixture.CatalogFixture.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The customer_order_summaries read model follows every order and item write, and
+ * history pages walk it newest first.
+ */
+@SpringBootTest
+class CustomerOrderHistoryTest {
+
+    @Autowired
+    private CustomerOrderHistoryService history;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService itemService;
+
+    @Autowired
+    private OrderBulkService bulkService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long productId;
+    private Long customerId;
+
+    @BeforeEach
+    void seed() {
+        productId = fixture.product(fixture.category("history"), "2.50", 1_000);
+        customerId = fixture.customer("Historian");
+    }
+
+    @Test
+    void followsOrderAndItemWrites() {
+        OrderDTO order = orderService.createOrder(order(customerId, line(productId, 2), line(productId, 1)));
+        assertThat(summaryOf(order.getId()).getItemCount()).isEqualTo(2);
+        assertThat(summaryOf(order.getId()).getTotal()).isEqualByComparingTo("7.50");
+
+        OrderItemDTO added = itemService.addItem(order.getId(), line(productId, 4));
+        assertThat(summaryOf(order.getId()).getItemCount()).isEqualTo(3);
+        assertThat(summaryOf(order.getId()).getTotal()).isEqualByComparingTo("17.50");
+
+        OrderItemUpdateDTO update = new OrderItemUpdateDTO();
+        update.setQuantity(2);
+        itemService.updateItem(added.getId(), update);
+        assertThat(summaryOf(order.getId()).getItemCount()).isEqualTo(3);
+        assertThat(summaryOf(order.getId()).getTotal()).isEqualByComparingTo("12.50");
+
+        itemService.deleteItem(added.getId());
+        CustomerOrderSummaryDTO summary = summaryOf(order.getId());
+        assertThat(summary.getItemCount()).isEqualTo(2);
+        assertThat(summary.getTotal()).isEqualByComparingTo(orderService.getOrder(order.getId()).getTotal());
+
+        orderService.deleteOrder(order.getId());
+        assertThat(history.getHistory(customerId, null, 50).getItems()).isEmpty();
+    }
+
+    @Test
+    void bulkCreatedOrdersAppearInHistory() {
+        String body = ("{\"customerId\":%d,\"items\":[{\"productId\":%d,\"quantity\":1}]}\n").formatted(customerId, productId);
+        bulkService.ingest(new ByteArrayInputStream(body.repeat(3).getBytes(StandardCharsets.UTF_8)));
+
+        List<CustomerOrderSummaryDTO> rows = history.getHistory(customerId, null, 50).getItems();
+        assertThat(rows).hasSize(3).allSatisfy(row -> {
+            assertThat(row.getItemCount()).isEqualTo(1);
+            assertThat(row.getTotal()).isEqualByComparingTo("2.50");
+        });
+    }
+
+    @Test
+    void pagesNewestFirst() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(orderService.createOrder(order(customerId, line(productId, 1))).getId());
+        }
+        // two orders on the same instant: the id breaks the tie
+        jdbc.update("UPDATE customer_order_summaries SET order_date = "
+                        + "(SELECT order_date FROM customer_order_summaries WHERE order_id = ?) WHERE order_id = ?",
+                created.get(1), created.get(2));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<CustomerOrderSummaryDTO> page = history.getHistory(customerId, cursor, 2);
+            page.getItems().forEach(row -> seen.add(row.getOrderId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(created).doesNotHaveDuplicates();
+        assertThat(seen.indexOf(created.get(2))).isLessThan(seen.indexOf(created.get(1)));
+        assertThat(seen.get(0)).isEqualTo(created.get(4));
+    }
+
+    @Test
+    void unknownCustomerIsNotFoundAndDeletedCustomerLeavesNoRows() {
+        assertThatThrownBy(() -> history.getHistory(-1L, null, 10)).isInstanceOf(ResourceNotFoundException.class);
+
+        orderService.createOrder(order(customerId, line(productId, 1)));
+        customerService.delete(customerId);
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM customer_order_summaries WHERE customer_id = ?",
+                Integer.class, customerId)).isZero();
+    }
+
+    private CustomerOrderSummaryDTO summaryOf(Long orderId) {
+        return history.getHistory(customerId, null, 50).getItems().stream()
+                .filter(row -> row.getOrderId().equals(orderId))
+                .findFirst()
+                .orElseThrow();
+    }
+}
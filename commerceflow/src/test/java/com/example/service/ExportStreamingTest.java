@@ -0,0 +1,144 @@
+package com.example.service;
+
+import com.example.dto.CustomerCreateDTO;
+import com.example.dto.CustomerDTO;
+import com.example.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exports stream every row through MockMvc's async dispatch, from a cursor opened in a
+ * read-only transaction and closed once the body is written.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportStreamingTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @MockitoSpyBean
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private ObjectMapper json;
+
+    private final AtomicBoolean readOnly = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private Long quoted;
+
+    @BeforeEach
+    void seed() {
+        customer("Plain", "Exporter");
+        quoted = customer("Jane, \"JJ\"", "Exporter");
+
+        // record how the export opens and releases the cursor
+        readOnly.set(false);
+        closed.set(false);
+        // the repository is a JDK proxy: the spy's default answer delegates to it
+        Answer<?> real = mockingDetails(customerRepo).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            readOnly.set(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            @SuppressWarnings("unchecked")
+            Stream<CustomerDTO> rows = (Stream<CustomerDTO>) real.answer(invocation);
+            return rows.onClose(() -> closed.set(true));
+        }).when(customerRepo).streamAllAsDto();
+    }
+
+    @Test
+    void csvExportStreamsEveryRow() throws Exception {
+        List<String> lines = export("csv", "text/csv;charset=UTF-8");
+
+        assertThat(lines.get(0)).isEqualTo("id,firstName,lastName,email,phone,createdAt");
+        assertThat(lines).hasSize((int) customerRepo.count() + 1);
+        assertThat(lines).filteredOn(line -> line.startsWith(quoted + ","))
+                .singleElement()
+                .satisfies(line -> assertThat(line).startsWith(quoted + ",\"Jane, \"\"JJ\"\"\",Exporter,,,"));
+        assertStreamReleased();
+    }
+
+    @Test
+    void ndjsonExportStreamsEveryRow() throws Exception {
+        List<String> lines = export("ndjson", "application/x-ndjson");
+
+        Map<Long, JsonNode> rows = new HashMap<>();
+        for (String line : lines) {
+            JsonNode row = json.readTree(line);
+            rows.put(row.get("id").asLong(), row);
+        }
+        assertThat(rows).hasSize((int) customerRepo.count());
+        assertThat(rows.get(quoted).get("firstName").asText()).isEqualTo("Jane, \"JJ\"");
+        assertStreamReleased();
+    }
+
+    @Test
+    void cursorIsReadOnlyWithAFetchSize() throws NoSuchMethodException {
+        QueryHints hints = CustomerRepository.class.getMethod("streamAllAsDto").getAnnotation(QueryHints.class);
+        Map<String, String> byName = Arrays.stream(hints.value())
+                .collect(Collectors.toMap(QueryHint::name, QueryHint::value));
+
+        assertThat(byName).containsEntry(HibernateHints.HINT_READ_ONLY, "true")
+                .containsKey(HibernateHints.HINT_FETCH_SIZE);
+    }
+
+    private List<String> export(String format, String contentType) throws Exception {
+        MvcResult started = mvc.perform(get("/api/exports/customers").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", contentType))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(body).endsWith("\n");
+        return List.of(body.split("\n"));
+    }
+
+    private void assertStreamReleased() {
+        assertThat(readOnly).as("cursor opened in a read-only transaction").isTrue();
+        assertThat(closed).as("cursor closed after the export").isTrue();
+    }
+
+    private Long customer(String firstName, String lastName) {
+        CustomerCreateDTO dto = new CustomerCreateDTO();
+        dto.setFirstName(firstName);
+        dto.setLastName(lastName);
+        return customerService.create(dto).getId();
+    }
+}
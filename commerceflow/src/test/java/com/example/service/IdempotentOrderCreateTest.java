@@ -0,0 +1,163 @@
+package com.example.service;
+
+import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderDTO;
+import com.example.exception.BadRequestException;
+import com.example.exception.ConflictException;
+import com.example.fixture.CatalogFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.fixture.CatalogFixture.line;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Orders created through {@link IdempotencyService}: retries and concurrent duplicates
+ * with one key create one order and reserve stock once.
+ */
+@SpringBootTest
+class IdempotentOrderCreateTest {
+
+    @Autowired
+    private IdempotencyService idempotency;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private ObjectMapper json;
+
+    private Long productId;
+    private Long customerId;
+
+    @BeforeEach
+    void seed() {
+        productId = fixture.product(fixture.category("idempotency"), "4.00", 100);
+        customerId = fixture.customer("Retry");
+    }
+
+    @Test
+    void retryReplaysTheFirstResponse() {
+        String key = UUID.randomUUID().toString();
+
+        IdempotencyService.Outcome<OrderDTO> first = create(idempotency, key, order(2));
+        IdempotencyService.Outcome<OrderDTO> retry = create(idempotency, key, order(2));
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response().getId()).isEqualTo(first.response().getId());
+        assertThat(ordersOfCustomer()).isEqualTo(1);
+        assertThat(stock()).isEqualTo(98);
+    }
+
+    @Test
+    void concurrentDuplicatesExecuteOnce() throws InterruptedException {
+        String key = UUID.randomUUID().toString();
+        Queue<Long> ids = new ConcurrentLinkedQueue<>();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicInteger executed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+
+        for (int i = 0; i < 32; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    IdempotencyService.Outcome<OrderDTO> outcome = create(idempotency, key, order(1));
+                    if (!outcome.replayed()) executed.incrementAndGet();
+                    ids.add(outcome.response().getId());
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(failures).isEmpty();
+        assertThat(executed.get()).isEqualTo(1);
+        assertThat(ids).hasSize(32).containsOnly(ids.peek());
+        assertThat(ordersOfCustomer()).isEqualTo(1);
+        assertThat(stock()).isEqualTo(99);
+    }
+
+    @Test
+    void otherInstanceReplaysFromTheTable() {
+        String key = UUID.randomUUID().toString();
+        OrderDTO first = create(idempotency, key, order(3)).response();
+
+        // fresh in-memory store, same database: another node, or this one after a restart
+        IdempotencyService otherNode = new IdempotencyService(jdbc, txManager, json, 24, 1_000, 5_000);
+        IdempotencyService.Outcome<OrderDTO> replay = create(otherNode, key, order(3));
+
+        assertThat(replay.replayed()).isTrue();
+        assertThat(replay.response().getId()).isEqualTo(first.getId());
+        assertThat(replay.response().getTotal()).isEqualByComparingTo(first.getTotal());
+        assertThat(ordersOfCustomer()).isEqualTo(1);
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        String key = UUID.randomUUID().toString();
+        create(idempotency, key, order(1));
+
+        assertThatThrownBy(() -> create(idempotency, key, order(5)))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(ordersOfCustomer()).isEqualTo(1);
+    }
+
+    @Test
+    void failedRequestCanBeRetriedWithTheSameKey() {
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> create(idempotency, key, order(101)))
+                .isInstanceOf(ConflictException.class);
+
+        jdbc.update("UPDATE products SET quantity = 200 WHERE id = ?", productId);
+        IdempotencyService.Outcome<OrderDTO> retry = create(idempotency, key, order(101));
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(ordersOfCustomer()).isEqualTo(1);
+    }
+
+    private IdempotencyService.Outcome<OrderDTO> create(IdempotencyService service, String key, OrderCreateDTO dto) {
+        return service.execute("orders", key, dto, OrderDTO.class, () -> orderService.createOrder(dto));
+    }
+
+    private OrderCreateDTO order(int quantity) {
+        return CatalogFixture.order(customerId, line(productId, quantity));
+    }
+
+    private int ordersOfCustomer() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM orders WHERE customer_id = ?", Integer.class, customerId);
+    }
+
+    private int stock() {
+        return fixture.stockOf(productId);
+    }
+}
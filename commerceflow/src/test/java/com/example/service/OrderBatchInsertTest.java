@@ -0,0 +1,59 @@
+package com.example.service;
+
+import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderDTO;
+import com.example.dto.OrderItemCreateDTO;
+import com.example.entity.Category;
+import com.example.fixture.CatalogFixture;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.fixture.CatalogFixture.line;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Locks in JDBC batching for order creation: a 100-item order must be written with a
+ * handful of statements (sequence fetches + one batched INSERT per table), not 100+.
+ */
+@SpringBootTest
+class OrderBatchInsertTest {
+
+    private static final int ITEMS = 100;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void hundredItemOrderIsWrittenInBatches() {
+        Category category = fixture.category("batch-insert");
+        List<OrderItemCreateDTO> lines = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            lines.add(line(fixture.product(category, "BATCH-" + i, "1", 1_000), 2));
+        }
+        Long customerId = fixture.customer("Batch");
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        OrderDTO order = orderService.createOrder(new OrderCreateDTO(customerId, lines));
+
+        assertThat(order.getTotal()).isEqualByComparingTo("200");
+        assertThat(stats.getEntityInsertCount()).isEqualTo(ITEMS + 1);
+        // 2 selects (customer, products) + a few sequence calls + one prepared INSERT per table/batch.
+        // With IDENTITY this was 2 + 1 + 100.
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.service;
+
+import com.example.dto.BulkOrderResponseDTO;
+import com.example.dto.BulkOrderResultDTO;
+import com.example.entity.Category;
+import com.example.fixture.CatalogFixture;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulk order ingestion: JSON array and NDJSON bodies, one transaction per chunk, per-order
+ * results for invalid orders and unreadable elements, and bisection of a chunk that fails
+ * in the database.
+ */
+@SpringBootTest(properties = "commerceflow.orders.bulk.chunk-size=16")
+@AutoConfigureMockMvc
+class OrderBulkIngestTest {
+
+    @Autowired
+    private OrderBulkService bulk;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Long productId;
+    private Long scarceId;
+    private Long customerId;
+
+    @BeforeEach
+    void seed() {
+        Category category = fixture.category("bulk-orders");
+        productId = fixture.product(category, "2.00", 1_000);
+        scarceId = fixture.product(category, "2.00", 10);
+        customerId = fixture.customer("Bulk");
+    }
+
+    @Test
+    void acceptsJsonArrayAndNdjson() throws Exception {
+        mvc.perform(post("/api/orders/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + order(customerId, productId, 1) + "," + order(customerId, productId, 2) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.created").value(2));
+
+        mvc.perform(post("/api/orders/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(order(customerId, productId, 1) + "\n" + order(customerId, productId, 2) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.created").value(2));
+
+        assertThat(ordersOfCustomer()).isEqualTo(4);
+        assertThat(fixture.stockOf(productId)).isEqualTo(1_000 - 6);
+    }
+
+    @Test
+    void persistsOneTransactionPerChunk() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        String body = IntStream.range(0, 33)
+                .mapToObj(i -> order(customerId, productId, 1))
+                .collect(Collectors.joining("\n"));
+
+        stats.clear();
+        BulkOrderResponseDTO response = ingest(body);
+
+        assertThat(response.getCreated()).isEqualTo(33);
+        assertThat(response.getResults()).extracting(BulkOrderResultDTO::getIndex)
+                .containsExactlyElementsOf(IntStream.range(0, 33).boxed().toList());
+        // chunks of 16, 16 and 1
+        assertThat(stats.getTransactionCount()).isEqualTo(3);
+        assertThat(ordersOfCustomer()).isEqualTo(33);
+    }
+
+    @Test
+    void invalidOrdersFailAloneInTheirChunk() {
+        BulkOrderResponseDTO response = ingest(String.join("\n",
+                order(customerId, productId, 1),
+                order(customerId, productId, 0),
+                order(-1L, productId, 1),
+                order(customerId, -1L, 1),
+                "{\"customerId\":" + customerId + ",\"items\":[]}",
+                order(customerId, productId, 2)));
+
+        assertThat(response.getReceived()).isEqualTo(6);
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BulkOrderResultDTO::getStatus)
+                .containsExactly("CREATED", "FAILED", "FAILED", "FAILED", "FAILED", "CREATED");
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Quantity must be greater than 0");
+        assertThat(response.getResults().get(2).getError()).isEqualTo("Customer not found");
+        assertThat(response.getResults().get(3).getError()).isEqualTo("Products not found: [-1]");
+        assertThat(response.getResults().get(4).getError()).startsWith("items:");
+        assertThat(ordersOfCustomer()).isEqualTo(2);
+    }
+
+    @Test
+    void wrongShapeIsSkippedButMalformedJsonStopsReading() {
+        BulkOrderResponseDTO response = ingest(String.join("\n",
+                order(customerId, productId, 1),
+                "{\"customerId\":\"not-a-number\",\"items\":[{\"productId\":" + productId + ",\"quantity\":1}]}",
+                order(customerId, productId, 1),
+                "{\"customerId\" " + customerId + "}",
+                order(customerId, productId, 1)));
+
+        assertThat(response.getResults()).extracting(BulkOrderResultDTO::getStatus)
+                .containsExactly("CREATED", "FAILED", "CREATED", "FAILED");
+        assertThat(response.getResults().get(1).getError()).startsWith("Invalid order:");
+        assertThat(response.getResults().get(3).getError()).startsWith("Malformed JSON:");
+        // the order after the malformed element is never read
+        assertThat(ordersOfCustomer()).isEqualTo(2);
+    }
+
+    @Test
+    void stockShortfallIsIsolatedByBisectingTheChunk() {
+        // together the chunk needs 14 of the 10 units; on their own the first and last fit
+        BulkOrderResponseDTO response = ingest(String.join("\n",
+                order(customerId, scarceId, 4),
+                order(customerId, scarceId, 7),
+                order(customerId, scarceId, 3)));
+
+        assertThat(response.getResults()).extracting(BulkOrderResultDTO::getStatus)
+                .containsExactly("CREATED", "FAILED", "CREATED");
+        assertThat(response.getResults().get(1).getError()).containsIgnoringCase("stock");
+        assertThat(fixture.stockOf(scarceId)).isEqualTo(3);
+        assertThat(ordersOfCustomer()).isEqualTo(2);
+    }
+
+    @Test
+    void oneFailingOrderCostsLogarithmicallyManyTransactions() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        String body = IntStream.range(0, 16)
+                .mapToObj(i -> i == 15 ? order(customerId, scarceId, 11) : order(customerId, productId, 1))
+                .collect(Collectors.joining("\n"));
+
+        stats.clear();
+        BulkOrderResponseDTO response = ingest(body);
+
+        assertThat(response.getCreated()).isEqualTo(15);
+        assertThat(response.getResults().get(15).getStatus()).isEqualTo("FAILED");
+        // the chunk, then a committed and a failed half of 8, 4, 2 and 1 orders; one by one would take 1 + 16
+        assertThat(stats.getTransactionCount()).isEqualTo(9);
+        assertThat(ordersOfCustomer()).isEqualTo(15);
+        assertThat(fixture.stockOf(scarceId)).isEqualTo(10);
+    }
+
+    private BulkOrderResponseDTO ingest(String body) {
+        return bulk.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private int ordersOfCustomer() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM orders WHERE customer_id = ?", Integer.class, customerId);
+    }
+
+    private static String order(Long customerId, Long productId, int quantity) {
+        return "{\"customerId\":%d,\"items\":[{\"productId\":%d,\"quantity\":%d}]}"
+                .formatted(customerId, productId, quantity);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.service;
+
+import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderDTO;
+import com.example.dto.OrderItemCreateDTO;
+import com.example.entity.Category;
+import com.example.fixture.CatalogFixture;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.fixture.CatalogFixture.line;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GET /api/orders/{id} must load order, customer and items with one statement,
+ * however many distinct products the order references.
+ */
+@SpringBootTest
+class OrderReadQueryCountTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void getOrderUsesSingleStatement() {
+        Category category = fixture.category("order-read");
+        List<OrderItemCreateDTO> lines = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            lines.add(line(fixture.product(category, "READ-" + i, "2.50", 100), 1));
+        }
+        Long customerId = fixture.customer("Reader");
+
+        Long orderId = orderService.createOrder(new OrderCreateDTO(customerId, lines)).getId();
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        OrderDTO order = orderService.getOrder(orderId);
+
+        assertThat(order.getCustomerFirstName()).isEqualTo("Reader");
+        assertThat(order.getItems()).hasSize(5)
+                .allSatisfy(item -> assertThat(item.getProductId()).isNotNull());
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
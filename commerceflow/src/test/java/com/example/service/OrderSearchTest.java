@@ -0,0 +1,140 @@
+package com.example.service;
+
+import com.example.dto.CursorPage;
+import com.example.dto.OrderFilter;
+import com.example.dto.OrderSummaryDTO;
+import com.example.entity.Category;
+import com.example.exception.BadRequestException;
+import com.example.fixture.CatalogFixture;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.fixture.CatalogFixture.line;
+import static com.example.fixture.CatalogFixture.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Order listing: filters, keyset page walking in both directions (ties on orderDate
+ * broken by id) and items only when expanded.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderSearchTest {
+
+    private static final Instant BASE = Instant.parse("2024-03-01T00:00:00Z");
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long customerId;
+    private Long otherCustomerId;
+    private final List<Long> orders = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        Category category = fixture.category("order-search");
+        Long productId = fixture.product(category, "SEARCH-1", "1.00", 1_000);
+        customerId = fixture.customer("Searcher");
+        otherCustomerId = fixture.customer("Bystander");
+
+        // 7 orders one day apart; days 2 and 3 share a timestamp to exercise the id tie-break
+        for (int i = 0; i < 7; i++) {
+            Long id = orderService.createOrder(order(customerId, line(productId, i + 1))).getId();
+            Instant date = BASE.plus(i == 3 ? 2 : i, ChronoUnit.DAYS);
+            jdbc.update("UPDATE orders SET order_date = ?, status = ? WHERE id = ?",
+                    Timestamp.from(date), i % 2 == 0 ? "NEW" : "SHIPPED", id);
+            orders.add(id);
+        }
+
+        orderService.createOrder(order(otherCustomerId, line(productId, 1)));
+    }
+
+    @Test
+    void walksCustomerOrdersNewestFirst() {
+        OrderFilter filter = OrderFilter.builder().customerId(customerId).build();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<OrderSummaryDTO> page = orderService.searchOrders(filter, "desc", cursor, 3, false);
+            page.getItems().forEach(o -> {
+                assertThat(o.getCustomerId()).isEqualTo(customerId);
+                assertThat(o.getItems()).isNull();
+            });
+            page.getItems().forEach(o -> seen.add(o.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        // newest first; the two orders sharing a date come back highest id first
+        assertThat(seen).containsExactly(
+                orders.get(6), orders.get(5), orders.get(4), orders.get(3), orders.get(2), orders.get(1), orders.get(0));
+    }
+
+    @Test
+    void filtersByStatusAndDateRange() {
+        OrderFilter filter = OrderFilter.builder()
+                .customerId(customerId)
+                .status("NEW")
+                .from(BASE.plus(1, ChronoUnit.DAYS))
+                .to(BASE.plus(6, ChronoUnit.DAYS))
+                .build();
+
+        CursorPage<OrderSummaryDTO> page = orderService.searchOrders(filter, "asc", null, 50, false);
+
+        // NEW orders are 0, 2, 4, 6; the range [day 1, day 6) keeps 2 and 4
+        assertThat(page.getItems()).extracting(OrderSummaryDTO::getId).containsExactly(orders.get(2), orders.get(4));
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void expandsItemsOnRequest() {
+        OrderFilter filter = OrderFilter.builder().customerId(customerId).build();
+
+        CursorPage<OrderSummaryDTO> page = orderService.searchOrders(filter, "asc", null, 7, true);
+
+        assertThat(page.getItems()).hasSize(7);
+        for (int i = 0; i < 7; i++) {
+            OrderSummaryDTO order = page.getItems().get(i);
+            assertThat(order.getItems()).hasSize(1);
+            assertThat(order.getItems().get(0).getOrderId()).isEqualTo(order.getId());
+            assertThat(order.getItems().get(0).getQuantity()).isEqualTo(i + 1);
+        }
+    }
+
+    @Test
+    void rejectsBadArguments() {
+        OrderFilter all = OrderFilter.builder().customerId(customerId).build();
+        String descCursor = orderService.searchOrders(all, "desc", null, 1, false).getNextCursor();
+
+        assertThatThrownBy(() -> orderService.searchOrders(all, "asc", descCursor, 1, false))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> orderService.searchOrders(all, "sideways", null, 1, false))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> orderService.searchOrders(all, "desc", null, 501, false))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> orderService.searchOrders(
+                OrderFilter.builder().from(BASE).to(BASE).build(), "desc", null, 10, false))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
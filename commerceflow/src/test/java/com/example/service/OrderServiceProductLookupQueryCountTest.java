@@ -0,0 +1,177 @@
+package com.example.service;
+
+import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderDTO;
+import com.example.dto.OrderItemCreateDTO;
+import com.example.entity.Category;
+import com.example.exception.ResourceNotFoundException;
+import com.example.fixture.CatalogFixture;
+import com.example.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.example.fixture.CatalogFixture.line;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Statement counts for the product lookup in {@link OrderService#createOrder}.
+ * Compares the old one-findById-per-line loop ("before") with the single IN query
+ * now used by the service ("after") for 1, 10 and 100 line orders, and locks in the
+ * statement count of the new path. Timings for the same comparison are in
+ * ProductLookupBenchmark (jmh profile).
+ * The product snapshot cache is cleared before each test so the query counts are cold-cache.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderServiceProductLookupQueryCountTest {
+
+    private static final int[] LINE_COUNTS = {1, 10, 100};
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepo;
+
+    @Autowired
+    private ProductSnapshotCache productSnapshots;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    private Statistics stats;
+    private Long customerId;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+
+        Category category = fixture.category("lookup-bench");
+        for (int i = 0; i < 100; i++) {
+            productIds.add(fixture.product(category, "LOOKUP-" + i, "9.99", 1_000));
+        }
+        customerId = fixture.customer("Bench");
+    }
+
+    @BeforeEach
+    void clearSnapshotCache() {
+        productSnapshots.clear();
+    }
+
+    @Test
+    void createOrderIssuesOneProductQueryRegardlessOfLineCount() {
+        for (int lines : LINE_COUNTS) {
+            OrderCreateDTO dto = order(lines);
+
+            stats.clear();
+            OrderDTO order = orderService.createOrder(dto);
+
+            assertThat(order.getItems()).hasSize(lines);
+            assertThat(stats.getEntityLoadCount())
+                    .as("entities loaded for %d lines", lines)
+                    .isEqualTo(1);                      // customer only; products come from a DTO query
+            assertThat(stats.getQueryExecutionCount())
+                    .as("product queries for %d lines", lines)
+                    .isEqualTo(1);
+        }
+    }
+
+    @Test
+    void duplicateProductIdsAreQueriedOnce() {
+        OrderCreateDTO dto = new OrderCreateDTO(customerId, List.of(
+                line(productIds.get(0), 1),
+                line(productIds.get(0), 2),
+                line(productIds.get(1), 1)));
+
+        stats.clear();
+        OrderDTO order = orderService.createOrder(dto);
+
+        assertThat(order.getItems()).hasSize(3);
+        assertThat(order.getTotal()).isEqualByComparingTo("39.96");
+        assertThat(stats.getQueryExecutionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedProductsAreNotQueriedAgain() {
+        orderService.createOrder(order(10));
+
+        stats.clear();
+        OrderDTO order = orderService.createOrder(order(10));
+
+        assertThat(order.getItems()).hasSize(10);
+        assertThat(stats.getQueryExecutionCount()).isZero();
+    }
+
+    @Test
+    void missingProductsAreReportedTogether() {
+        OrderCreateDTO dto = new OrderCreateDTO(customerId, List.of(
+                line(productIds.get(0), 1),
+                line(-1L, 1),
+                line(-2L, 1)));
+
+        assertThatThrownBy(() -> orderService.createOrder(dto))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Products not found: [-1, -2]");
+    }
+
+    @Test
+    void compareLookupBeforeAndAfter() {
+        for (int lines : LINE_COUNTS) {
+            List<Long> ids = productIds.subList(0, lines);
+
+            assertThat(statements(ids, this::lookupPerLine)).as("before, %d lines", lines).isEqualTo(lines);
+            assertThat(statements(ids, this::lookupBatched)).as("after, %d lines", lines).isEqualTo(1);
+        }
+    }
+
+    /* -------------------------
+       Lookup helpers
+       ------------------------- */
+
+    // The pre-change behaviour: one findById round trip per order line
+    private void lookupPerLine(List<Long> ids) {
+        for (Long id : ids) {
+            productRepo.findById(id).orElseThrow();
+        }
+    }
+
+    // The current behaviour: distinct ids resolved in one IN query
+    private void lookupBatched(List<Long> ids) {
+        productRepo.findAllById(new LinkedHashSet<>(ids));
+    }
+
+    private long statements(List<Long> ids, Consumer<List<Long>> lookup) {
+        stats.clear();
+        tx.executeWithoutResult(s -> lookup.accept(ids));
+        return stats.getPrepareStatementCount();
+    }
+
+    private OrderCreateDTO order(int lines) {
+        List<OrderItemCreateDTO> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            items.add(line(productIds.get(i), 1));
+        }
+        return new OrderCreateDTO(customerId, items);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.service;
+
+import com.example.dto.OrderCreateDTO;
+import com.example.dto.OrderDTO;
+import com.example.dto.OrderItemCreateDTO;
+import com.example.dto.OrderItemDTO;
+import com.example.dto.OrderItemUpdateDTO;
+import com.example.entity.Category;
+import com.example.fixture.CatalogFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.fixture.CatalogFixture.line;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent item adds, quantity changes and deletes on one order must leave
+ * orders.total equal to SUM(order_items.line_total).
+ */
+@SpringBootTest
+class OrderTotalConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService itemService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void totalMatchesLineTotalsUnderContention() throws InterruptedException {
+        Category category = fixture.category("order-total");
+        List<Long> products = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String price = new BigDecimal("1.25").multiply(BigDecimal.valueOf(i + 1)).toPlainString();
+            products.add(fixture.product(category, "TOTAL-" + i, price, 1_000_000));
+        }
+        Long customerId = fixture.customer("Total");
+
+        List<OrderItemCreateDTO> lines = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            lines.add(line(products.get(i % products.size()), 1));
+        }
+        OrderDTO order = orderService.createOrder(new OrderCreateDTO(customerId, lines));
+        List<Long> items = order.getItems().stream().map(OrderItemDTO::getId).toList();
+
+        // first 10 items are deleted, the other 30 are hammered with quantity changes
+        List<Runnable> work = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Long itemId = items.get(i);
+            work.add(() -> itemService.deleteItem(itemId));
+        }
+        for (int i = 0; i < 600; i++) {
+            Long itemId = items.get(10 + i % 30);
+            work.add(() -> itemService.updateItem(itemId,
+                    quantity(ThreadLocalRandom.current().nextInt(1, 20))));
+        }
+        for (int i = 0; i < 200; i++) {
+            Long productId = products.get(i % products.size());
+            work.add(() -> itemService.addItem(order.getId(), line(productId, 3)));
+        }
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (Runnable task : work) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(failures).isEmpty();
+
+        BigDecimal total = jdbc.queryForObject("SELECT total FROM orders WHERE id = ?",
+                BigDecimal.class, order.getId());
+        BigDecimal sum = jdbc.queryForObject("SELECT COALESCE(SUM(line_total), 0) FROM order_items WHERE order_id = ?",
+                BigDecimal.class, order.getId());
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM order_items WHERE order_id = ?",
+                Integer.class, order.getId());
+
+        assertThat(count).isEqualTo(40 - 10 + 200);
+        assertThat(total).isEqualByComparingTo(sum);
+    }
+
+    private static OrderItemUpdateDTO quantity(int quantity) {
+        OrderItemUpdateDTO dto = new OrderItemUpdateDTO();
+        dto.setQuantity(quantity);
+        return dto;
+    }
+}
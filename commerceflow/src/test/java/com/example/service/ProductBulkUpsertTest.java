@@ -0,0 +1,158 @@
+package com.example.service;
+
+import com.example.dto.BulkRowErrorDTO;
+import com.example.dto.ProductCreateDTO;
+import com.example.dto.ProductUpsertResultDTO;
+import com.example.entity.Category;
+import com.example.fixture.CatalogFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Catalog sync classification: which rows are inserted, updated or left alone, duplicate
+ * SKUs within one payload, and the content hash itself. None of this needs the Postgres
+ * ON CONFLICT write, so it runs on H2 with payloads that classify without writing.
+ */
+@SpringBootTest
+class ProductBulkUpsertTest {
+
+    @Autowired
+    private ProductBulkService bulk;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Category category;
+    private String sku;
+
+    @BeforeEach
+    void seed() {
+        category = fixture.category("bulk-upsert");
+        sku = "SYNC-" + UUID.randomUUID();
+        productService.create(product(sku, "Mug", "4.50", 10));
+    }
+
+    @Test
+    void hashIsStableAndCoversEveryFeedField() {
+        String hash = ProductContentHash.of("SKU-1", "Mug", 1L, new BigDecimal("10.5"), 3);
+
+        assertThat(ProductContentHash.of("SKU-1", "Mug", 1L, new BigDecimal("10.5"), 3)).isEqualTo(hash);
+        // the column's scale does not change the hash
+        assertThat(ProductContentHash.of("SKU-1", "Mug", 1L, new BigDecimal("10.5000"), 3)).isEqualTo(hash);
+
+        assertThat(ProductContentHash.of("SKU-1", "Cup", 1L, new BigDecimal("10.5"), 3)).isNotEqualTo(hash);
+        assertThat(ProductContentHash.of("SKU-1", "Mug", 2L, new BigDecimal("10.5"), 3)).isNotEqualTo(hash);
+        assertThat(ProductContentHash.of("SKU-1", "Mug", 1L, new BigDecimal("10.6"), 3)).isNotEqualTo(hash);
+        assertThat(ProductContentHash.of("SKU-1", "Mug", 1L, new BigDecimal("10.5"), 4)).isNotEqualTo(hash);
+        // fields are delimited, so moving text across a boundary changes the hash
+        assertThat(ProductContentHash.of("SKU-1M", "ug", 1L, new BigDecimal("10.5"), 3)).isNotEqualTo(hash);
+    }
+
+    @Test
+    void classifiesInsertUpdateAndUnchanged() {
+        String fresh = "SYNC-" + UUID.randomUUID();
+        Map<String, ProductCreateDTO> bySku = new LinkedHashMap<>();
+        bySku.put(fresh, product(fresh, "Plate", "7.00", 3));
+        bySku.put(sku, product(sku, "Mug", "4.50", 10));
+
+        ProductBulkService.BatchPlan plan = bulk.plan(bySku, indexes(bySku));
+        assertThat(plan.inserted()).isEqualTo(1);
+        assertThat(plan.unchanged()).isEqualTo(1);
+        assertThat(plan.updated()).isZero();
+        assertThat(plan.writes()).extracting(ProductBulkService.Row::sku).containsExactly(fresh);
+
+        // a descriptive change is an update
+        bySku.put(sku, product(sku, "Mug", "4.75", 10));
+        plan = bulk.plan(bySku, indexes(bySku));
+        assertThat(plan.updated()).isEqualTo(1);
+        assertThat(plan.writes()).extracting(ProductBulkService.Row::sku).containsExactly(fresh, sku);
+    }
+
+    @Test
+    void quantityIsComparedWithTheLastFeedNotLiveStock() {
+        Map<String, ProductCreateDTO> bySku = new LinkedHashMap<>();
+        bySku.put(sku, product(sku, "Mug", "4.50", 10));
+
+        // orders move stock without touching the content hash
+        jdbc.update("UPDATE products SET quantity = quantity - 4 WHERE sku = ?", sku);
+
+        // resending the same feed is not a change, so the units sold stay sold
+        assertThat(bulk.plan(bySku, indexes(bySku)).unchanged()).isEqualTo(1);
+
+        // a new feed quantity is
+        bySku.put(sku, product(sku, "Mug", "4.50", 20));
+        ProductBulkService.BatchPlan plan = bulk.plan(bySku, indexes(bySku));
+        assertThat(plan.updated()).isEqualTo(1);
+        assertThat(plan.writes()).singleElement().satisfies(row -> assertThat(row.quantity()).isEqualTo(20));
+    }
+
+    @Test
+    void duplicateSkuInOnePayloadKeepsTheFirstOccurrence() {
+        ProductUpsertResultDTO result = upsert(
+                json(product(sku, "Mug", "4.50", 10)),
+                json(product(sku, "Mug", "99.00", 1)),
+                json(ProductCreateDTO.builder().sku("SYNC-" + UUID.randomUUID()).name("Lost")
+                        .categoryId(-1L).price(BigDecimal.ONE).quantity(1).build()));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(result.getInserted() + result.getUpdated()).isZero();
+        assertThat(result.getErrors()).extracting(BulkRowErrorDTO::getIndex, BulkRowErrorDTO::getError)
+                .containsExactly(
+                        tuple(1, "Duplicate SKU in batch"),
+                        tuple(2, "Category not found: -1"));
+        assertThat(jdbc.queryForObject("SELECT price FROM products WHERE sku = ?", BigDecimal.class, sku))
+                .isEqualByComparingTo("4.50");
+    }
+
+    private ProductUpsertResultDTO upsert(String... rows) {
+        String body = String.join("\n", rows);
+        return bulk.upsert(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ProductCreateDTO product(String sku, String name, String price, int quantity) {
+        return ProductCreateDTO.builder()
+                .sku(sku)
+                .name(name)
+                .categoryId(category.getId())
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .build();
+    }
+
+    private static String json(ProductCreateDTO dto) {
+        return "{\"sku\":\"%s\",\"name\":\"%s\",\"categoryId\":%d,\"price\":%s,\"quantity\":%d}"
+                .formatted(dto.getSku(), dto.getName(), dto.getCategoryId(), dto.getPrice().toPlainString(),
+                        dto.getQuantity());
+    }
+
+    private static Map<String, Integer> indexes(Map<String, ProductCreateDTO> bySku) {
+        Map<String, Integer> indexBySku = new HashMap<>();
+        List<String> skus = List.copyOf(bySku.keySet());
+        for (int i = 0; i < skus.size(); i++) {
+            indexBySku.put(skus.get(i), i);
+        }
+        return indexBySku;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.service;
+
+import com.example.dto.CursorPage;
+import com.example.dto.ProductDTO;
+import com.example.dto.ProductFilter;
+import com.example.entity.Category;
+import com.example.exception.BadRequestException;
+import com.example.fixture.CatalogFixture;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Catalog listing: keyset pages by id and by createdAt (ties broken by id) walked with the
+ * returned cursors, the filters, and cursors that do not match the requested sort.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductCatalogSearchTest {
+
+    private static final Instant BASE = Instant.parse("2024-05-01T00:00:00Z");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long categoryId;
+    private final List<Long> products = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        Category category = fixture.category("catalog-search");
+        categoryId = category.getId();
+
+        products.add(fixture.product(category, "CAT-RED-MUG", "5.00", 10));
+        products.add(fixture.product(category, "CAT-BLUE-MUG", "7.50", 0));
+        products.add(fixture.product(category, "CAT-RED-PLATE", "12.00", 3));
+        products.add(fixture.product(category, "CAT-GREEN-BOWL", "3.00", 0));
+        products.add(fixture.product(category, "CAT-RED-BOWL", "20.00", 1));
+        products.add(fixture.product(category, "CAT-BLUE-PLATE", "9.99", 8));
+        products.add(fixture.product(category, "CAT-50%-OFF-CUP", "1.00", 5));
+
+        // pairs of products share a creation instant to exercise the id tie-break
+        for (int i = 0; i < products.size(); i++) {
+            jdbc.update("UPDATE products SET created_at = ? WHERE id = ?",
+                    Timestamp.from(BASE.plus(i / 2, ChronoUnit.DAYS)), products.get(i));
+        }
+
+        // another category the filters must leave out
+        fixture.product(fixture.category("catalog-search-other"), "CAT-RED-OTHER", "5.00", 10);
+    }
+
+    @Test
+    void walksPagesByIdInBothDirections() {
+        assertThat(walk(inCategory().build(), "id", "asc", 3)).containsExactlyElementsOf(products);
+        List<Long> reversed = new ArrayList<>(products);
+        Collections.reverse(reversed);
+        assertThat(walk(inCategory().build(), "id", "desc", 3)).containsExactlyElementsOf(reversed);
+    }
+
+    @Test
+    void walksPagesByCreatedAtWithIdTieBreak() {
+        List<Long> newestFirst = List.of(
+                products.get(6), products.get(5), products.get(4), products.get(3),
+                products.get(2), products.get(1), products.get(0));
+
+        assertThat(walk(inCategory().build(), "createdAt", "desc", 2)).containsExactlyElementsOf(newestFirst);
+        assertThat(walk(inCategory().build(), "createdAt", "asc", 2)).containsExactlyElementsOf(products);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<ProductDTO> first = productService.searchCatalog(inCategory().build(), "id", "asc", null, 4);
+        assertThat(first.isHasNext()).isTrue();
+
+        CursorPage<ProductDTO> last = productService.searchCatalog(inCategory().build(), "id", "asc",
+                first.getNextCursor(), 4);
+        assertThat(last.getItems()).extracting(ProductDTO::getId).containsExactlyElementsOf(products.subList(4, 7));
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void appliesFilters() {
+        assertThat(ids(inCategory().name("red").inStock(true).maxPrice(new BigDecimal("15")).build()))
+                .containsExactly(products.get(0), products.get(2));
+        assertThat(ids(inCategory().inStock(false).build()))
+                .containsExactly(products.get(1), products.get(3));
+        assertThat(ids(inCategory().minPrice(new BigDecimal("9.99")).maxPrice(new BigDecimal("12.00")).build()))
+                .containsExactly(products.get(2), products.get(5));
+        // LIKE wildcards in the term are matched literally
+        assertThat(ids(inCategory().name("%").build())).containsExactly(products.get(6));
+        assertThat(ids(ProductFilter.builder().name("cat-red-").build()))
+                .hasSize(4)
+                .doesNotContain(products.get(1));
+    }
+
+    @Test
+    void rejectsBadArguments() {
+        ProductFilter all = inCategory().build();
+        String idCursor = productService.searchCatalog(all, "id", "asc", null, 1).getNextCursor();
+
+        assertThatThrownBy(() -> productService.searchCatalog(all, "id", "sideways", null, 1))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("sortDir must be asc or desc");
+        assertThatThrownBy(() -> productService.searchCatalog(all, "price", "asc", null, 1))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> productService.searchCatalog(all, "createdAt", "asc", idCursor, 1))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor does not match sortBy/sortDir");
+        assertThatThrownBy(() -> productService.searchCatalog(all, "id", "desc", idCursor, 1))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor does not match sortBy/sortDir");
+        assertThatThrownBy(() -> productService.searchCatalog(all, "id", "asc", "not-a-cursor", 1))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> productService.searchCatalog(all, "id", "asc", null, 0))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> productService.searchCatalog(
+                inCategory().minPrice(BigDecimal.TEN).maxPrice(BigDecimal.ONE).build(), "id", "asc", null, 1))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private List<Long> walk(ProductFilter filter, String sortBy, String sortDir, int size) {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ProductDTO> page = productService.searchCatalog(filter, sortBy, sortDir, cursor, size);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(size);
+            page.getItems().forEach(p -> seen.add(p.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private List<Long> ids(ProductFilter filter) {
+        return productService.searchCatalog(filter, "id", "asc", null, 50).getItems().stream()
+                .map(ProductDTO::getId)
+                .toList();
+    }
+
+    private ProductFilter.ProductFilterBuilder inCategory() {
+        return ProductFilter.builder().categoryId(categoryId);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.service;
+
+import com.example.dto.OrderCreateDTO;
+import com.example.entity.Category;
+import com.example.exception.ConflictException;
+import com.example.fixture.CatalogFixture;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static com.example.fixture.CatalogFixture.line;
+import static com.example.fixture.CatalogFixture.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress test for {@link StockReservationService} through {@link OrderService#createOrder}:
+ * hundreds of threads released at once against the same SKU must sell exactly the stock
+ * on hand, and orders locking the same products in opposite line order must not deadlock.
+ * Deleting an order, or a customer with their orders, gives the stock back.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StockReservationConcurrencyTest {
+
+    private static final int THREADS = 200;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    private Category category;
+    private Long customerId;
+
+    @BeforeAll
+    void seed() {
+        category = fixture.category("stock-reservation");
+        customerId = fixture.customer("Flash");
+    }
+
+    @Test
+    void hotSkuIsNeverOversold() throws InterruptedException {
+        Long sku = fixture.product(category, "FLASH-1", "10", 100);
+
+        Outcome outcome = race(500, i -> order(customerId, line(sku, 1)));
+
+        assertThat(outcome.unexpected).isEmpty();
+        assertThat(outcome.created.get()).isEqualTo(100);
+        assertThat(outcome.rejected.get()).isEqualTo(400);
+        assertThat(fixture.stockOf(sku)).isZero();
+    }
+
+    @Test
+    void multiLineOrdersAreAllOrNothing() throws InterruptedException {
+        Long a = fixture.product(category, "FLASH-A", "10", 50);
+        Long b = fixture.product(category, "FLASH-B", "10", 1_000);
+
+        // every order needs one of each; only 50 can be satisfied and b must not leak
+        Outcome outcome = race(300, i -> order(customerId, line(b, 1), line(a, 1)));
+
+        assertThat(outcome.unexpected).isEmpty();
+        assertThat(outcome.created.get()).isEqualTo(50);
+        assertThat(fixture.stockOf(a)).isZero();
+        assertThat(fixture.stockOf(b)).isEqualTo(950);
+    }
+
+    @Test
+    void oppositeLineOrderDoesNotDeadlock() throws InterruptedException {
+        Long a = fixture.product(category, "LOCK-A", "10", 10_000);
+        Long b = fixture.product(category, "LOCK-B", "10", 10_000);
+
+        Outcome outcome = race(400, i -> i % 2 == 0
+                ? order(customerId, line(a, 1), line(b, 2))
+                : order(customerId, line(b, 2), line(a, 1)));
+
+        assertThat(outcome.unexpected).isEmpty();
+        assertThat(outcome.created.get()).isEqualTo(400);
+        assertThat(fixture.stockOf(a)).isEqualTo(10_000 - 400);
+        assertThat(fixture.stockOf(b)).isEqualTo(10_000 - 800);
+    }
+
+    @Test
+    void deletingAnOrderReleasesItsStock() {
+        Long sku = fixture.product(category, "RELEASE-1", "10", 5);
+
+        Long orderId = orderService.createOrder(order(customerId, line(sku, 3), line(sku, 2))).getId();
+        assertThat(fixture.stockOf(sku)).isZero();
+
+        orderService.deleteOrder(orderId);
+        assertThat(fixture.stockOf(sku)).isEqualTo(5);
+    }
+
+    @Test
+    void deletingACustomerReleasesTheStockOfTheirOrders() {
+        Long a = fixture.product(category, "RELEASE-A", "10", 10);
+        Long b = fixture.product(category, "RELEASE-B", "10", 10);
+        Long leaving = fixture.customer("Leaving");
+
+        orderService.createOrder(order(leaving, line(a, 3), line(b, 1)));
+        orderService.createOrder(order(leaving, line(a, 2)));
+        orderService.createOrder(order(customerId, line(a, 1)));
+        assertThat(fixture.stockOf(a)).isEqualTo(4);
+
+        customerService.delete(leaving);
+        // only the other customer's order still holds stock
+        assertThat(fixture.stockOf(a)).isEqualTo(9);
+        assertThat(fixture.stockOf(b)).isEqualTo(10);
+    }
+
+    /* -------------------------
+       Helpers
+       ------------------------- */
+
+    private Outcome race(int attempts, IntFunction<OrderCreateDTO> orders) throws InterruptedException {
+        Outcome outcome = new Outcome();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < attempts; i++) {
+            OrderCreateDTO dto = orders.apply(i);
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    orderService.createOrder(dto);
+                    outcome.created.incrementAndGet();
+                } catch (ConflictException ex) {
+                    outcome.rejected.incrementAndGet();
+                } catch (Throwable ex) {
+                    outcome.unexpected.add(ex);
+                }
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        return outcome;
+    }
+
+    private static final class Outcome {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+    }
+}
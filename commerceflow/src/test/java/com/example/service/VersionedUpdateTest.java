@@ -0,0 +1,121 @@
+package com.example.service;
+
+import com.example.dto.CategoryDTO;
+import com.example.dto.CategoryUpdateDTO;
+import com.example.dto.CustomerDTO;
+import com.example.dto.CustomerUpdateDTO;
+import com.example.dto.ProductDTO;
+import com.example.dto.ProductUpdateDTO;
+import com.example.entity.Category;
+import com.example.exception.ConflictException;
+import com.example.fixture.CatalogFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static com.example.fixture.CatalogFixture.line;
+import static com.example.fixture.CatalogFixture.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Full-replacement PUTs carry the version the client read: a payload based on an older
+ * version is rejected with a conflict instead of overwriting (or being retried over) the
+ * newer row.
+ */
+@SpringBootTest
+class VersionedUpdateTest {
+
+    @Autowired
+    private ProductService products;
+
+    @Autowired
+    private CustomerService customers;
+
+    @Autowired
+    private CategoryService categories;
+
+    @Autowired
+    private OrderService orders;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    private Category category;
+
+    @BeforeEach
+    void seed() {
+        category = fixture.category("versioned-" + UUID.randomUUID());
+    }
+
+    @Test
+    void productUpdateWithTheCurrentVersionBumpsIt() {
+        ProductDTO read = products.getById(fixture.product(category, "5.00", 10));
+
+        ProductDTO updated = products.update(read.getId(), productUpdate(read, "6.00", 12));
+
+        assertThat(updated.getVersion()).isEqualTo(read.getVersion() + 1);
+        assertThat(products.getById(read.getId()).getPrice()).isEqualByComparingTo("6.00");
+    }
+
+    @Test
+    void productUpdateAfterAnOrderIsRejectedSoTheSoldUnitsStaySold() {
+        Long productId = fixture.product(category, "5.00", 10);
+        ProductDTO read = products.getById(productId);
+
+        orders.createOrder(order(fixture.customer("Versioned"), line(productId, 3)));
+
+        assertThatThrownBy(() -> products.update(productId, productUpdate(read, "5.00", 10)))
+                .isInstanceOf(ConflictException.class);
+        assertThat(fixture.stockOf(productId)).isEqualTo(7);
+    }
+
+    @Test
+    void staleCustomerUpdateIsRejected() {
+        CustomerDTO read = customers.getById(fixture.customer("Ann"));
+        customers.update(read.getId(), customerUpdate("Anna", read.getVersion()));
+
+        assertThatThrownBy(() -> customers.update(read.getId(), customerUpdate("Annie", read.getVersion())))
+                .isInstanceOf(ConflictException.class);
+        assertThat(customers.getById(read.getId()).getFirstName()).isEqualTo("Anna");
+    }
+
+    @Test
+    void staleCategoryUpdateIsRejected() {
+        CategoryDTO read = categories.getById(category.getId());
+        categories.update(read.getId(), categoryUpdate(read.getName(), "first", read.getVersion()));
+
+        assertThatThrownBy(() -> categories.update(read.getId(), categoryUpdate(read.getName(), "second", read.getVersion())))
+                .isInstanceOf(ConflictException.class);
+        assertThat(categories.getById(read.getId()).getDescription()).isEqualTo("first");
+    }
+
+    private ProductUpdateDTO productUpdate(ProductDTO read, String price, int quantity) {
+        return ProductUpdateDTO.builder()
+                .name(read.getName())
+                .categoryId(read.getCategoryId())
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .version(read.getVersion())
+                .build();
+    }
+
+    private static CustomerUpdateDTO customerUpdate(String firstName, Long version) {
+        CustomerUpdateDTO dto = new CustomerUpdateDTO();
+        dto.setFirstName(firstName);
+        dto.setVersion(version);
+        return dto;
+    }
+
+    private static CategoryUpdateDTO categoryUpdate(String name, String description, Long version) {
+        CategoryUpdateDTO dto = new CategoryUpdateDTO();
+        dto.setName(name);
+        dto.setDescription(description);
+        dto.setVersion(version);
+        return dto;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.service.analytics;
+
+import com.example.dto.OrderItemDTO;
+import com.example.dto.OrderItemUpdateDTO;
+import com.example.dto.ProductDTO;
+import com.example.dto.ProductUpdateDTO;
+import com.example.dto.SalesSeriesDTO;
+import com.example.dto.SalesTotalDTO;
+import com.example.entity.Category;
+import com.example.fixture.CatalogFixture;
+import com.example.service.OrderItemService;
+import com.example.service.OrderService;
+import com.example.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.fixture.CatalogFixture.line;
+import static com.example.fixture.CatalogFixture.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order and item writes reach the daily rollups through the ledger, reversals included
+ * (in the category the line was sold in), and reports read them back per subject and as a top N.
+ */
+@SpringBootTest
+class SalesAnalyticsTest {
+
+    @Autowired
+    private SalesAnalyticsService analytics;
+
+    @Autowired
+    private SalesRollupCompactor compactor;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService itemService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Category category;
+    private Long cheap;
+    private Long dear;
+
+    @BeforeEach
+    void seed() {
+        category = fixture.category("analytics-" + UUID.randomUUID());
+        cheap = fixture.product(category, "2.00", 1_000);
+        dear = fixture.product(category, "5.00", 1_000);
+    }
+
+    @Test
+    void rollupsFollowOrderAndItemWrites() {
+        Long customerId = fixture.customer("Buyer");
+        Long first = orderService.createOrder(order(customerId, line(cheap, 3), line(dear, 1))).getId();
+
+        OrderItemDTO added = itemService.addItem(first, line(cheap, 2));
+        OrderItemUpdateDTO update = new OrderItemUpdateDTO();
+        update.setQuantity(1);
+        itemService.updateItem(added.getId(), update);
+
+        Long second = orderService.createOrder(order(customerId, line(dear, 2))).getId();
+        orderService.deleteOrder(second);
+
+        assertThat(compactor.compact()).isPositive();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM sales_ledger", Integer.class)).isZero();
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        // first order only: cheap 3 + 1 units, dear 1 unit
+        assertSeries(analytics.series(SalesDimension.PRODUCT, cheap, today, today), 4, "8.00");
+        assertSeries(analytics.series(SalesDimension.PRODUCT, dear, today, today), 1, "5.00");
+        assertSeries(analytics.series(SalesDimension.CATEGORY, category.getId(), today, today), 5, "13.00");
+        assertSeries(analytics.series(SalesDimension.CUSTOMER, customerId, today, today), 5, "13.00");
+    }
+
+    @Test
+    void reversalsHitTheCategoryTheLineWasSoldIn() {
+        Long customerId = fixture.customer("Buyer");
+        Long placed = orderService.createOrder(order(customerId, line(cheap, 3), line(dear, 1))).getId();
+        OrderItemDTO added = itemService.addItem(placed, line(cheap, 2));
+
+        // the product moves to another category after the sale
+        Category moved = fixture.category("analytics-" + UUID.randomUUID());
+        ProductDTO read = productService.getById(cheap);
+        productService.update(cheap, ProductUpdateDTO.builder()
+                .name(read.getName())
+                .categoryId(moved.getId())
+                .price(read.getPrice())
+                .quantity(read.getQuantity())
+                .version(read.getVersion())
+                .build());
+
+        itemService.deleteItem(added.getId());
+        orderService.deleteOrder(placed);
+        compactor.compact();
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        SalesSeriesDTO soldIn = analytics.series(SalesDimension.CATEGORY, category.getId(), today, today);
+        assertThat(soldIn.getUnits()).isZero();
+        assertThat(soldIn.getRevenue()).isEqualByComparingTo("0");
+        assertThat(analytics.series(SalesDimension.CATEGORY, moved.getId(), today, today).getDays()).isEmpty();
+    }
+
+    @Test
+    void topRanksByRevenueOverTheRange() {
+        Long small = fixture.customer("Buyer");
+        Long big = fixture.customer("Buyer");
+        orderService.createOrder(order(small, line(cheap, 1)));
+        orderService.createOrder(order(big, line(dear, 3)));
+        orderService.createOrder(order(big, line(cheap, 1)));
+
+        // move this test's sales to days no other test writes to
+        Instant day = Instant.parse("2001-02-03T10:00:00Z");
+        jdbc.update("UPDATE sales_ledger SET order_date = ? WHERE customer_id IN (?, ?)", Timestamp.from(day), small, big);
+        compactor.compact();
+
+        LocalDate date = LocalDate.of(2001, 2, 3);
+        List<SalesTotalDTO> top = analytics.top(SalesDimension.CUSTOMER, date.minusDays(30), date, 10);
+
+        assertThat(top).extracting(SalesTotalDTO::getId).containsExactly(big, small);
+        assertThat(top.get(0).getRevenue()).isEqualByComparingTo("17.00");
+        assertThat(top.get(0).getUnits()).isEqualTo(4);
+
+        SalesSeriesDTO series = analytics.series(SalesDimension.CUSTOMER, big, date.minusDays(30), date.plusDays(30));
+        assertThat(series.getDays()).hasSize(1);
+        assertThat(series.getDays().get(0).getDate()).isEqualTo(date);
+        assertThat(analytics.top(SalesDimension.CUSTOMER, date.plusDays(1), date.plusDays(30), 10)).isEmpty();
+    }
+
+    private static void assertSeries(SalesSeriesDTO series, long units, String revenue) {
+        assertThat(series.getUnits()).isEqualTo(units);
+        assertThat(series.getRevenue()).isEqualByComparingTo(revenue);
+        assertThat(series.getDays()).hasSize(1);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.service.inventory;
+
+import com.example.dto.ProductDTO;
+import com.example.dto.ProductUpdateDTO;
+import com.example.dto.ProductUpsertResultDTO;
+import com.example.entity.Category;
+import com.example.exception.ConflictException;
+import com.example.exception.ServiceUnavailableException;
+import com.example.fixture.CatalogFixture;
+import com.example.service.OrderService;
+import com.example.service.ProductBulkService;
+import com.example.service.ProductService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.fixture.CatalogFixture.line;
+import static com.example.fixture.CatalogFixture.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Hot SKU reservations through {@link OrderService#createOrder}: the in-memory counter
+ * sells exactly the stock on hand under contention, the flush brings products.quantity
+ * in line with it, stopping waits for open transactions to give their stock back, and
+ * direct quantity writes are refused while the counter holds the stock.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotInventoryTest {
+
+    private static final int THREADS = 200;
+    private static final int STOCK = 1_000;
+
+    @DynamicPropertySource
+    static void hotInventory(DynamicPropertyRegistry registry) throws IOException {
+        String journalDir = Files.createTempDirectory("hot-inventory").toString();
+        registry.add("commerceflow.inventory.hot.enabled", () -> "true");
+        registry.add("commerceflow.inventory.hot.skus", () -> "HOT-1,HOT-2,HOT-3");
+        registry.add("commerceflow.inventory.hot.journal-dir", () -> journalDir);
+    }
+
+    @Autowired
+    private HotInventory hotInventory;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkService productBulk;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private Long hot;
+    private Long hotToo;
+    private Long hotThree;
+    private Long cold;
+    private Long customerId;
+
+    @BeforeAll
+    void seed() {
+        Category category = fixture.category("hot-inventory");
+        hot = fixture.product(category, "HOT-1", "1", STOCK);
+        hotToo = fixture.product(category, "HOT-2", "1", STOCK);
+        hotThree = fixture.product(category, "HOT-3", "1", STOCK);
+        cold = fixture.product(category, "COLD-1", "1", 10);
+        customerId = fixture.customer("Hot");
+
+        // SKUs are resolved at startup; restart the inventory now that they exist
+        hotInventory.stop();
+        hotInventory.start();
+    }
+
+    @Test
+    void hotSkuIsNeverOversold() throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < 3 * STOCK; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    orderService.createOrder(order(customerId, line(hot, 1)));
+                    created.incrementAndGet();
+                } catch (ConflictException ex) {
+                    rejected.incrementAndGet();
+                } catch (Throwable ex) {
+                    unexpected.add(ex);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(created.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(2 * STOCK);
+        assertThat(hotInventory.available(hot)).hasValue(0);
+
+        hotInventory.flush();
+        assertThat(fixture.stockOf(hot)).isZero();
+    }
+
+    @Test
+    void rolledBackOrderReturnsHotStock() {
+        // the cold line fails in the database after the hot line was taken in memory
+        assertThat(hotInventory.isHot(hotToo)).isTrue();
+        try {
+            orderService.createOrder(order(customerId, line(hotToo, 5), line(cold, 11)));
+        } catch (ConflictException expected) {
+            // insufficient stock for the cold product
+        }
+
+        assertThat(hotInventory.available(hotToo)).hasValue(STOCK);
+        hotInventory.flush();
+        assertThat(fixture.stockOf(hotToo)).isEqualTo(STOCK);
+        assertThat(fixture.stockOf(cold)).isEqualTo(10);
+    }
+
+    @Test
+    void stopWaitsForOpenReservations() throws Exception {
+        CompletableFuture<Void> stopping = new TransactionTemplate(txManager).execute(status -> {
+            hotInventory.reserve(Map.of(hotToo, 7));
+
+            CompletableFuture<Void> stop = CompletableFuture.runAsync(hotInventory::stop);
+            awaitStopping();
+            // no new reservations once stopping, and the open one still holds its stock
+            assertThatThrownBy(() -> hotInventory.reserve(Map.of(hotToo, 1)))
+                    .isInstanceOf(ServiceUnavailableException.class);
+            sleep(200);
+            assertThat(stop).isNotDone();
+            assertThat(hotInventory.available(hotToo)).hasValue(STOCK - 7);
+
+            status.setRollbackOnly();
+            return stop;
+        });
+
+        // the rollback gave the stock back before the final flush and the journal close
+        stopping.get(10, TimeUnit.SECONDS);
+        assertThat(fixture.stockOf(hotToo)).isEqualTo(STOCK);
+
+        hotInventory.start();
+        assertThat(hotInventory.available(hotToo)).hasValue(STOCK);
+    }
+
+    @Test
+    void directQuantityWritesToAHotSkuAreRejected() {
+        ProductDTO read = productService.getById(hotThree);
+
+        // a descriptive change that keeps the quantity goes through
+        ProductDTO renamed = productService.update(hotThree, update(read, "Renamed", STOCK));
+        assertThat(renamed.getName()).isEqualTo("Renamed");
+
+        assertThatThrownBy(() -> productService.update(hotThree, update(renamed, "Renamed", STOCK + 50)))
+                .isInstanceOf(ConflictException.class);
+
+        String feed = "{\"sku\":\"HOT-3\",\"name\":\"Restocked\",\"categoryId\":%d,\"price\":1,\"quantity\":%d}"
+                .formatted(renamed.getCategoryId(), STOCK + 50);
+        ProductUpsertResultDTO synced = productBulk.upsert(new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)));
+        assertThat(synced.getUpdated()).isZero();
+        assertThat(synced.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getKey()).isEqualTo("HOT-3"));
+
+        assertThat(hotInventory.available(hotThree)).hasValue(STOCK);
+        hotInventory.flush();
+        assertThat(fixture.stockOf(hotThree)).isEqualTo(STOCK);
+        assertThat(productService.getById(hotThree).getName()).isEqualTo("Renamed");
+    }
+
+    private static ProductUpdateDTO update(ProductDTO read, String name, int quantity) {
+        return ProductUpdateDTO.builder()
+                .name(name)
+                .categoryId(read.getCategoryId())
+                .price(read.getPrice())
+                .quantity(quantity)
+                .version(read.getVersion())
+                .build();
+    }
+
+    private void awaitStopping() {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (hotInventory.isRunning() && System.currentTimeMillis() < deadline) {
+            sleep(10);
+        }
+        assertThat(hotInventory.isRunning()).isFalse();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
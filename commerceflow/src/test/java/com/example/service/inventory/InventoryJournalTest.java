@@ -0,0 +1,81 @@
+package com.example.service.inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Crash recovery of the hot inventory journal: whatever was synced before the process
+ * died is replayed exactly once, and a torn tail record is ignored.
+ */
+class InventoryJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void syncedDeltasSurviveACrash() {
+        InventoryJournal journal = new InventoryJournal(dir, 0);
+        journal.sync(journal.append(Map.of(1L, -3L)));
+        journal.sync(journal.append(Map.of(1L, -2L, 2L, -1L)));
+        // crash: no drain, no checkpoint
+
+        InventoryJournal.Batch replayed = new InventoryJournal(dir, 0).recover(0);
+
+        assertThat(replayed.deltas()).containsOnly(Map.entry(1L, -5L), Map.entry(2L, -1L));
+        assertThat(replayed.lastSeq()).isEqualTo(3);
+    }
+
+    @Test
+    void recordsCoveredByTheCheckpointAreNotReplayed() {
+        InventoryJournal journal = new InventoryJournal(dir, 0);
+        journal.append(Map.of(1L, -1L));
+        InventoryJournal.Batch flushed = journal.drain();   // crash after the DB commit, before committed()
+        journal.sync(journal.append(Map.of(1L, -4L)));
+
+        InventoryJournal.Batch replayed = new InventoryJournal(dir, flushed.lastSeq()).recover(flushed.lastSeq());
+
+        assertThat(replayed.deltas()).containsOnly(Map.entry(1L, -4L));
+    }
+
+    @Test
+    void committedSegmentsAreDeletedAndSequencesContinue() throws IOException {
+        InventoryJournal journal = new InventoryJournal(dir, 0);
+        journal.append(Map.of(7L, -1L));
+        journal.committed(journal.drain());
+        journal.close();
+
+        assertThat(segmentCount()).isEqualTo(1);            // only the open, empty segment
+        InventoryJournal reopened = new InventoryJournal(dir, 1);
+        assertThat(reopened.append(Map.of(7L, -1L))).isEqualTo(2);
+    }
+
+    @Test
+    void tornTailRecordIsIgnored() throws IOException {
+        InventoryJournal journal = new InventoryJournal(dir, 0);
+        journal.sync(journal.append(Map.of(1L, -1L)));
+        journal.close();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            Path segment = files.findFirst().orElseThrow();
+            Files.write(segment, new byte[]{1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+        }
+
+        InventoryJournal.Batch replayed = new InventoryJournal(dir, 0).recover(0);
+        assertThat(replayed.deltas()).containsOnly(Map.entry(1L, -1L));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.service.outbox;
+
+import com.example.dto.OrderItemDTO;
+import com.example.dto.OrderItemUpdateDTO;
+import com.example.fixture.CatalogFixture;
+import com.example.service.OrderItemService;
+import com.example.service.OrderService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.fixture.CatalogFixture.line;
+import static com.example.fixture.CatalogFixture.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order changes reach the sinks through the outbox: in order per order, held back while
+ * another relay owns an earlier event of the same order, and kept in the table while a
+ * sink cannot take them.
+ */
+@SpringBootTest
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private InMemoryBroker broker;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService itemService;
+
+    @Autowired
+    private CatalogFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private ObjectMapper json;
+
+    private Long productId;
+    private Long customerId;
+
+    @BeforeEach
+    void seed() {
+        // start from an empty outbox and broker
+        relay.relay();
+        broker.drain();
+
+        productId = fixture.product(fixture.category("outbox"), "3.00", 1_000);
+        customerId = fixture.customer("Publisher");
+    }
+
+    @Test
+    void orderHistoryIsPublishedInOrder() throws Exception {
+        Long orderId = createOrder();
+        OrderItemDTO item = itemService.addItem(orderId, line(productId, 2));
+        OrderItemUpdateDTO update = new OrderItemUpdateDTO();
+        update.setQuantity(5);
+        itemService.updateItem(item.getId(), update);
+        itemService.deleteItem(item.getId());
+        orderService.deleteOrder(orderId);
+
+        assertThat(relay.relay()).isEqualTo(5);
+
+        List<OutboxMessage> events = eventsOf(orderId, broker.drain());
+        assertThat(events).extracting(OutboxMessage::type).containsExactly(
+                OrderEvents.CREATED, OrderEvents.ITEM_CHANGED, OrderEvents.ITEM_CHANGED,
+                OrderEvents.ITEM_CHANGED, OrderEvents.DELETED);
+        assertThat(json.readTree(events.get(0).payload()).get("id").asLong()).isEqualTo(orderId);
+        JsonNode updated = json.readTree(events.get(2).payload());
+        assertThat(updated.get("change").asText()).isEqualTo("UPDATED");
+        assertThat(updated.get("quantity").asInt()).isEqualTo(5);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void eventsWaitBehindAnEarlierEventHeldByAnotherRelay() throws Exception {
+        Long held = createOrder();
+        Long other = createOrder();
+        itemService.addItem(held, line(productId, 1));
+        Long firstOfHeld = jdbc.queryForObject(
+                "SELECT MIN(id) FROM outbox_events WHERE aggregate_id = ?", Long.class, held);
+
+        // another relay has claimed the held order's first event
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherRelay = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(txManager).executeWithoutResult(status -> {
+                    jdbc.queryForList("SELECT id FROM outbox_events WHERE id = ? FOR UPDATE", firstOfHeld);
+                    locked.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        relay.relay();
+        List<OutboxMessage> firstRun = broker.drain();
+        assertThat(eventsOf(other, firstRun)).hasSize(1);
+        assertThat(eventsOf(held, firstRun)).isEmpty();
+
+        release.countDown();
+        otherRelay.get(10, TimeUnit.SECONDS);
+
+        relay.relay();
+        assertThat(eventsOf(held, broker.drain())).extracting(OutboxMessage::type)
+                .containsExactly(OrderEvents.CREATED, OrderEvents.ITEM_CHANGED);
+    }
+
+    @Test
+    void eventsStayInTheOutboxWhileTheSinkIsFull() {
+        Long orderId = createOrder();
+        itemService.addItem(orderId, line(productId, 1));
+
+        InMemoryBroker full = new InMemoryBroker(1, 10);
+        OutboxRelay stalled = new OutboxRelay(jdbc, txManager, new SimpleMeterRegistry(),
+                List.of(full), Set.of("memory"), 500, 20);
+
+        assertThat(stalled.relay()).isZero();
+        assertThat(pending()).isEqualTo(2);
+
+        assertThat(relay.relay()).isEqualTo(2);
+        assertThat(eventsOf(orderId, broker.drain())).hasSize(2);
+    }
+
+    @Test
+    void fileSinkAppendsNdjson(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("events.ndjson");
+        try (FileOutboxSink sink = new FileOutboxSink(file, json)) {
+            sink.publish(List.of(
+                    new OutboxMessage(1, "order", 7, OrderEvents.CREATED, "{\"id\":7}", Instant.now()),
+                    new OutboxMessage(2, "order", 7, OrderEvents.DELETED, "{\"orderId\":7}", Instant.now())));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        assertThat(json.readTree(lines.get(1)).get("payload").get("orderId").asLong()).isEqualTo(7);
+    }
+
+    private Long createOrder() {
+        return orderService.createOrder(order(customerId, line(productId, 1))).getId();
+    }
+
+    private int pending() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class);
+    }
+
+    private static List<OutboxMessage> eventsOf(Long orderId, List<OutboxMessage> messages) {
+        return messages.stream().filter(m -> m.aggregateId() == orderId).toList();
+    }
+}